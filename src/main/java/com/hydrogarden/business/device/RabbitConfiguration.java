@@ -8,8 +8,10 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class RabbitConfiguration {
@@ -25,6 +27,42 @@ public class RabbitConfiguration {
     }
 
 
+    /**
+     * Ownership changes are fanned out to every instance, each bound with its own auto-deleted queue.
+     */
+    @Bean
+    public FanoutExchange ownershipChangesExchange() {
+        return new FanoutExchange("hydrogarden.ownership", true, false);
+    }
+
+    @Bean
+    public Queue ownershipChanges() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding ownershipChangesBinding(@Qualifier("ownershipChanges") Queue ownershipChanges, FanoutExchange ownershipChangesExchange) {
+        return BindingBuilder.bind(ownershipChanges).to(ownershipChangesExchange);
+    }
+
+    /**
+     * Committed device changes are fanned out the same way, so each instance can drop what it holds in memory.
+     */
+    @Bean
+    public FanoutExchange deviceChangesExchange() {
+        return new FanoutExchange("hydrogarden.device-changes", true, false);
+    }
+
+    @Bean
+    public Queue deviceChanges() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding deviceChangesBinding(@Qualifier("deviceChanges") Queue deviceChanges, FanoutExchange deviceChangesExchange) {
+        return BindingBuilder.bind(deviceChanges).to(deviceChangesExchange);
+    }
+
     @Bean
     public Binding toDeviceBinding(@Qualifier("toDevice") Queue toDevice) {
         return BindingBuilder
@@ -78,11 +116,19 @@ public class RabbitConfiguration {
         return template;
     }
 
+    /**
+     * Consumers run on virtual threads when {@code spring.threads.virtual.enabled} is set, so a listener blocked on
+     * JDBC or a broker confirm does not hold a platform thread.
+     */
     @Bean
-    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(final ConnectionFactory connectionFactory) {
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(final ConnectionFactory connectionFactory,
+                                                                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        if (virtualThreads) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+        }
         return factory;
     }
 
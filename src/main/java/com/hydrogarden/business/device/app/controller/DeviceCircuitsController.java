@@ -0,0 +1,69 @@
+package com.hydrogarden.business.device.app.controller;
+
+import com.hydrogarden.business.device.app.controller.dto.CircuitStateChangeRequest;
+import com.hydrogarden.business.device.app.mapper.DeviceMapper;
+import com.hydrogarden.business.device.app.service.DeviceApplicationService;
+import com.hydrogarden.business.device.app.service.PendingCircuitStateChange;
+import com.hydrogarden.business.device.core.entity.CircuitId;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.model.DeviceVitalsViewModel;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("devices/{deviceId}/circuits")
+public class DeviceCircuitsController {
+    private final DeviceApplicationService deviceApplicationService;
+    private final long ackTimeoutMs;
+
+    public DeviceCircuitsController(DeviceApplicationService deviceApplicationService,
+                                    @Value("${hydrogarden.circuits.ack-timeout-ms:10000}") long ackTimeoutMs) {
+        this.deviceApplicationService = deviceApplicationService;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
+
+    /**
+     * Applies desired states of several circuits atomically and sends them to the device as one NewState command.
+     */
+    @PatchMapping("state")
+    public ResponseEntity<DeviceVitalsViewModel> changeCircuitStates(@PathVariable Integer deviceId, @Valid @RequestBody CircuitStateChangeRequest request) {
+        Device device = deviceApplicationService.requestChangeCircuitStatuses(new DeviceId((short) deviceId.intValue()), toCircuitStates(request));
+        DeviceVitalsViewModel viewModel = DeviceMapper.INSTANCE.toViewModel(device);
+        return ResponseEntity.ok(viewModel);
+    }
+
+    /**
+     * Same change, answered once the device acknowledged the new states. No thread is held while waiting.
+     * Responds 200 with the acknowledged vitals, or 202 with the vitals as committed when the device did not
+     * acknowledge in time.
+     */
+    @PatchMapping(value = "state", params = "waitForAck=true")
+    public DeferredResult<ResponseEntity<DeviceVitalsViewModel>> changeCircuitStatesAwaitingAck(@PathVariable Integer deviceId, @Valid @RequestBody CircuitStateChangeRequest request) {
+        PendingCircuitStateChange change = deviceApplicationService.requestChangeCircuitStatusesAwaitingAck(new DeviceId((short) deviceId.intValue()), toCircuitStates(request));
+        DeviceSnapshot requested = change.device().toSnapshot(true);
+
+        DeferredResult<ResponseEntity<DeviceVitalsViewModel>> result = new DeferredResult<>(ackTimeoutMs,
+                ResponseEntity.accepted().body(DeviceMapper.INSTANCE.toViewModel(requested)));
+        result.onCompletion(() -> change.acknowledged().cancel(false));
+        change.acknowledged().thenAccept(acknowledged ->
+                result.setResult(ResponseEntity.ok(DeviceMapper.INSTANCE.toViewModel(acknowledged.withCircuitsOf(requested)))));
+        return result;
+    }
+
+    private static Map<CircuitId, CircuitState> toCircuitStates(CircuitStateChangeRequest request) {
+        Map<CircuitId, CircuitState> circuitStates = new LinkedHashMap<>();
+        for (CircuitStateChangeRequest.CircuitStateChange change : request.circuits()) {
+            circuitStates.put(new CircuitId((short) change.id().intValue()), CircuitState.of(change.state()));
+        }
+        return circuitStates;
+    }
+}
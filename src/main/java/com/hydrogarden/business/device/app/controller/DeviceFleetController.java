@@ -0,0 +1,39 @@
+package com.hydrogarden.business.device.app.controller;
+
+import com.hydrogarden.business.device.app.service.DeviceApplicationService;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsField;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+@RestController
+@RequestMapping("devices/vitals")
+@RequiredArgsConstructor
+public class DeviceFleetController {
+    private final DeviceApplicationService deviceApplicationService;
+
+    /**
+     * Vitals of all devices owned by the caller, paged by device id.
+     *
+     * @param afterId {@code nextAfterId} of the previous page; omit for the first page
+     * @param fields  optional parts to include, e.g. {@code fields=state} or {@code fields=state,timing}; all when omitted
+     */
+    @GetMapping
+    public ResponseEntity<FleetVitalsPage> getFleetVitals(@RequestParam(required = false) Short afterId,
+                                                          @RequestParam(defaultValue = "500") int limit,
+                                                          @RequestParam(required = false) Set<String> fields) {
+        Set<FleetVitalsField> requested = EnumSet.allOf(FleetVitalsField.class);
+        if (fields != null && !fields.isEmpty()) {
+            requested = EnumSet.noneOf(FleetVitalsField.class);
+            for (String field : fields) {
+                requested.add(FleetVitalsField.valueOf(field.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return ResponseEntity.ok(deviceApplicationService.getFleetVitals(afterId, limit, requested));
+    }
+}
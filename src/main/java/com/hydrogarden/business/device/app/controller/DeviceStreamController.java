@@ -0,0 +1,34 @@
+package com.hydrogarden.business.device.app.controller;
+
+import com.hydrogarden.business.device.app.service.DeviceStreamApplicationService;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("devices")
+@RequiredArgsConstructor
+public class DeviceStreamController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final DeviceStreamApplicationService deviceStreamApplicationService;
+
+    /**
+     * Vitals of one device, pushed after every committed change.
+     */
+    @GetMapping(path = "{deviceId}/vitals/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDeviceVitals(@PathVariable Integer deviceId,
+                                         @RequestHeader(name = LAST_EVENT_ID, required = false) String lastEventId) {
+        return deviceStreamApplicationService.streamDevice(new DeviceId((short) deviceId.intValue()), lastEventId);
+    }
+
+    /**
+     * Vitals of all devices owned by the caller, pushed after every committed change.
+     */
+    @GetMapping(path = "vitals/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnedDeviceVitals(@RequestHeader(name = LAST_EVENT_ID, required = false) String lastEventId) {
+        return deviceStreamApplicationService.streamOwnedDevices(lastEventId);
+    }
+}
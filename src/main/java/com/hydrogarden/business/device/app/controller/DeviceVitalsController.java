@@ -4,25 +4,43 @@ package com.hydrogarden.business.device.app.controller;
 import com.hydrogarden.api.DeviceVitalsApi;
 import com.hydrogarden.business.device.app.mapper.DeviceMapper;
 import com.hydrogarden.business.device.app.service.DeviceApplicationService;
+import com.hydrogarden.business.device.app.service.PendingCircuitStateChange;
 import com.hydrogarden.business.device.core.entity.CircuitId;
 import com.hydrogarden.business.device.core.entity.CircuitState;
 import com.hydrogarden.business.device.core.entity.Device;
 import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
 import com.hydrogarden.model.DeviceVitalsViewModel;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @RestController
-@RequiredArgsConstructor
 public class DeviceVitalsController implements DeviceVitalsApi {
     private final DeviceApplicationService deviceApplicationService;
+    private final HttpServletRequest request;
+    private final long ackTimeoutMs;
+
+    public DeviceVitalsController(DeviceApplicationService deviceApplicationService,
+                                  HttpServletRequest request,
+                                  @Value("${hydrogarden.circuits.ack-timeout-ms:10000}") long ackTimeoutMs) {
+        this.deviceApplicationService = deviceApplicationService;
+        this.request = request;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
 
     @Override
     public ResponseEntity<com.hydrogarden.model.DeviceVitalsViewModel> disableCircuit(Integer deviceId, Integer circuitId) {
-        Device device = deviceApplicationService.requestChangeCircuitStatus(new DeviceId((short) deviceId.intValue()), new CircuitId((short) circuitId.intValue()), CircuitState.OFF);
-        DeviceVitalsViewModel viewModel = DeviceMapper.INSTANCE.toViewModel(device);
-        return ResponseEntity.ok(viewModel);
+        return changeCircuitState(deviceId, circuitId, CircuitState.OFF);
     }
 
     @Override
@@ -34,9 +52,7 @@ public class DeviceVitalsController implements DeviceVitalsApi {
 
     @Override
     public ResponseEntity<com.hydrogarden.model.DeviceVitalsViewModel> enableCircuit(Integer deviceId, Integer circuitId) {
-        Device device = deviceApplicationService.requestChangeCircuitStatus(new DeviceId((short) deviceId.intValue()), new CircuitId((short) circuitId.intValue()), CircuitState.ON);
-        DeviceVitalsViewModel viewModel = DeviceMapper.INSTANCE.toViewModel(device);
-        return ResponseEntity.ok(viewModel);
+        return changeCircuitState(deviceId, circuitId, CircuitState.ON);
     }
 
     @Override
@@ -46,10 +62,74 @@ public class DeviceVitalsController implements DeviceVitalsApi {
         return ResponseEntity.ok(viewModel);
     }
 
+    /**
+     * Tagged with the aggregate version of the returned snapshot, the single monotonic version of the vitals row.
+     * A matching {@code If-None-Match} is answered with 304 after one primary-key lookup of the committed version,
+     * without building the view model. A served snapshot older than that version is reloaded.
+     */
     @Override
     public ResponseEntity<com.hydrogarden.model.DeviceVitalsViewModel> getDeviceVitals(Integer deviceId) {
-        Device device = deviceApplicationService.getDevice(new DeviceId((short) deviceId.intValue()));
-        DeviceVitalsViewModel viewModel = DeviceMapper.INSTANCE.toViewModel(device);
-        return ResponseEntity.ok(viewModel);
+        DeviceId id = new DeviceId((short) deviceId.intValue());
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        OptionalLong version = ifNoneMatch == null ? OptionalLong.empty() : deviceApplicationService.getDeviceVersion(id);
+        if (version.isPresent() && matches(ifNoneMatch, eTag(id, version.getAsLong()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(id, version.getAsLong())).build();
+        }
+
+        DeviceSnapshot snapshot = deviceApplicationService.getDeviceSnapshot(id);
+        if (version.isPresent() && snapshot.version() < version.getAsLong()) {
+            // The committed version is already known, so a missed broadcast does not leave this instance behind
+            deviceApplicationService.receiveDeviceChanged(id, version.getAsLong());
+            snapshot = deviceApplicationService.getDeviceSnapshot(id);
+        }
+        DeviceVitalsViewModel viewModel = DeviceMapper.INSTANCE.toViewModel(snapshot);
+        return ResponseEntity.ok().eTag(eTag(id, snapshot.version())).body(viewModel);
+    }
+
+    /**
+     * Single-circuit form of {@code PATCH devices/{deviceId}/circuits/state}, including its {@code waitForAck=true} mode.
+     * The generated signature is synchronous, so the acknowledgement is awaited on the request's virtual thread,
+     * which holds no carrier thread while parked.
+     */
+    private ResponseEntity<DeviceVitalsViewModel> changeCircuitState(Integer deviceId, Integer circuitId, CircuitState circuitState) {
+        DeviceId id = new DeviceId((short) deviceId.intValue());
+        Map<CircuitId, CircuitState> circuitStates = Map.of(new CircuitId((short) circuitId.intValue()), circuitState);
+
+        if (!Boolean.parseBoolean(request.getParameter("waitForAck"))) {
+            Device device = deviceApplicationService.requestChangeCircuitStatuses(id, circuitStates);
+            return ResponseEntity.ok(DeviceMapper.INSTANCE.toViewModel(device));
+        }
+
+        PendingCircuitStateChange change = deviceApplicationService.requestChangeCircuitStatusesAwaitingAck(id, circuitStates);
+        DeviceSnapshot requested = change.device().toSnapshot(true);
+        try {
+            DeviceSnapshot acknowledged = change.acknowledged().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            return ResponseEntity.ok(DeviceMapper.INSTANCE.toViewModel(acknowledged.withCircuitsOf(requested)));
+        } catch (TimeoutException | ExecutionException e) {
+            return ResponseEntity.accepted().body(DeviceMapper.INSTANCE.toViewModel(requested));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.accepted().body(DeviceMapper.INSTANCE.toViewModel(requested));
+        } finally {
+            change.acknowledged().cancel(false);
+        }
+    }
+
+    private static String eTag(DeviceId deviceId, long version) {
+        return "\"" + deviceId.getId() + "-" + version + "\"";
+    }
+
+    /**
+     * Strong comparison against a comma-separated {@code If-None-Match} list; weak tags never match.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
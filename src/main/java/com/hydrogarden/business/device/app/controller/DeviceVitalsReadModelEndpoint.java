@@ -0,0 +1,26 @@
+package com.hydrogarden.business.device.app.controller;
+
+import com.hydrogarden.business.device.app.service.DeviceVitalsReadModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Operator tooling for the device vitals read model. Not exposed over HTTP unless listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "devicevitals")
+@RequiredArgsConstructor
+public class DeviceVitalsReadModelEndpoint {
+
+    private final DeviceVitalsReadModel deviceVitalsReadModel;
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("devices", deviceVitalsReadModel.rebuild());
+    }
+}
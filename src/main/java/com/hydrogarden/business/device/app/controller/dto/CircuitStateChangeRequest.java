@@ -0,0 +1,16 @@
+package com.hydrogarden.business.device.app.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Desired states of several circuits of one device, applied together.
+ */
+public record CircuitStateChangeRequest(@NotEmpty List<@Valid CircuitStateChange> circuits) {
+
+    public record CircuitStateChange(@NotNull Integer id, @NotNull Boolean state) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.hydrogarden.business.device.app.listener;
+
+import com.hydrogarden.business.device.app.service.DeviceChangePublisher;
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.app.stream.DeviceVitalsBroadcaster;
+import com.hydrogarden.business.device.core.event.DeviceSnapshotChangedDE;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class DeviceSnapshotEventListener {
+
+    private final DeviceSnapshotStore deviceSnapshotStore;
+    private final DeviceVitalsBroadcaster deviceVitalsBroadcaster;
+
+    /**
+     * Streams the merged snapshot, so subscribers get circuit metadata even when the change did not load circuits.
+     * The store itself is updated synchronously after commit by {@link DeviceChangePublisher}.
+     */
+    @EventListener
+    public void receiveDomainEvent(DeviceSnapshotChangedDE event) {
+        deviceSnapshotStore.get(event.getDeviceId()).ifPresent(deviceVitalsBroadcaster::publish);
+    }
+}
@@ -0,0 +1,23 @@
+package com.hydrogarden.business.device.app.listener;
+
+import com.hydrogarden.business.device.app.service.DeviceVitalsReadModel;
+import com.hydrogarden.business.device.core.event.DeviceSnapshotChangedDE;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Projects committed device changes to the read model. Runs on its own event lane, so database latency
+ * here never delays the in-memory store or streaming subscribers.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceVitalsProjector {
+
+    private final DeviceVitalsReadModel deviceVitalsReadModel;
+
+    @EventListener
+    public void receiveDomainEvent(DeviceSnapshotChangedDE event) {
+        deviceVitalsReadModel.project(event.getSnapshot(), event.getTimestamp());
+    }
+}
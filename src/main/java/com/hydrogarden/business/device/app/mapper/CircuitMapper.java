@@ -3,6 +3,7 @@ package com.hydrogarden.business.device.app.mapper;
 import com.hydrogarden.business.device.core.entity.Circuit;
 import com.hydrogarden.business.device.core.entity.CircuitId;
 import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.snapshot.CircuitSnapshot;
 import com.hydrogarden.model.CircuitVitalsViewModel;
 import com.hydrogarden.model.DeviceVitalsViewModel;
 import org.mapstruct.Mapper;
@@ -17,4 +18,9 @@ public interface CircuitMapper {
     @Mapping(target = "state", source="state.value")
     @Mapping(target = "desiredState", source="desiredState.value")
     CircuitVitalsViewModel toViewModel(Circuit circuit);
+
+    @Mapping(target = "id", source = "id.id")
+    @Mapping(target = "state", source="state.value")
+    @Mapping(target = "desiredState", source="desiredState.value")
+    CircuitVitalsViewModel toViewModel(CircuitSnapshot circuit);
 }
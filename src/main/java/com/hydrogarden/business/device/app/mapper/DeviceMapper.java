@@ -1,6 +1,7 @@
 package com.hydrogarden.business.device.app.mapper;
 
 import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
 import com.hydrogarden.model.DeviceVitalsViewModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -16,4 +17,8 @@ public interface DeviceMapper {
     @Mapping(target = "lastKeepAliveSendTime", source="deviceVitals.lastKeepAliveSendTime")
     @Mapping(target = "lastHeartbeatReceiveTime", source="deviceVitals.lastCommandReceiveTime")
     DeviceVitalsViewModel toViewModel(Device device);
+
+    @Mapping(target="id", source = "id.id")
+    @Mapping(target = "lastHeartbeatReceiveTime", source="lastCommandReceiveTime")
+    DeviceVitalsViewModel toViewModel(DeviceSnapshot snapshot);
 }
@@ -0,0 +1,19 @@
+package com.hydrogarden.business.device.app.scheduled;
+
+import com.hydrogarden.business.device.app.service.DomainEventCompactor;
+import com.hydrogarden.common.HydrogardenEventPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class PublishDeviceEventSummaryScheduledTask {
+    private final DomainEventCompactor domainEventCompactor;
+    private final HydrogardenEventPublisher hydrogardenEventPublisher;
+
+    @Scheduled(fixedRateString = "${hydrogarden.events.summary.interval-ms:60000}")
+    public void publishDeviceEventSummary() {
+        domainEventCompactor.drain().ifPresent(hydrogardenEventPublisher::publish);
+    }
+}
@@ -3,11 +3,13 @@ package com.hydrogarden.business.device.app.scheduled;
 
 import com.hydrogarden.business.device.app.service.DeviceRoutineApplicationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "hydrogarden.routine.enabled", matchIfMissing = true)
 public class RunDeviceRoutineScheduledTask {
     private final DeviceRoutineApplicationService deviceRoutineApplicationService;
 
@@ -6,6 +6,13 @@ import com.hydrogarden.business.device.core.entity.CircuitId;
 import com.hydrogarden.business.device.core.entity.CircuitState;
 import com.hydrogarden.business.device.core.entity.Device;
 import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsField;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsPage;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 
 /**
  * Application Service interface for orchestrating Device use cases.
@@ -28,6 +35,34 @@ public interface DeviceApplicationService {
      */
     Device getDevice(DeviceId deviceId);
 
+    /**
+     * Get the latest committed snapshot of a device, without touching the database when it is already known.
+     * Changes committed through other instances are seen once their broadcast arrives, see {@link #receiveDeviceChanged}.
+     *
+     * @param deviceId device ID
+     * @return the device snapshot
+     */
+    DeviceSnapshot getDeviceSnapshot(DeviceId deviceId);
+
+    /**
+     * Get the latest committed version of a device, read from the primary by primary key. Unlike the snapshot store,
+     * it reflects changes committed through any instance.
+     *
+     * @param deviceId device ID
+     * @return the aggregate version, empty if the device does not exist
+     */
+    OptionalLong getDeviceVersion(DeviceId deviceId);
+
+    /**
+     * Get vitals of the devices owned by the authenticated user, one keyset page at a time.
+     *
+     * @param afterId id of the last device of the previous page, null for the first page
+     * @param limit   page size; capped
+     * @param fields  optional parts to include
+     * @return the page
+     */
+    FleetVitalsPage getFleetVitals(Short afterId, int limit, Set<FleetVitalsField> fields);
+
     /**
      * Enable a device.
      *
@@ -45,14 +80,39 @@ public interface DeviceApplicationService {
     Device disableDevice(DeviceId deviceId);
 
     /**
-     * Request to change circuit status.
+     * Request to change status of several circuits in one transaction, sent to the device as a single command.
      *
-     * @param deviceId     device ID
-     * @param circuitId    circuit ID
-     * @param circuitState new circuit state
+     * @param deviceId      device ID
+     * @param circuitStates new state per circuit
      * @return the updated device
      */
-    Device requestChangeCircuitStatus(DeviceId deviceId, CircuitId circuitId, CircuitState circuitState);
+    Device requestChangeCircuitStatuses(DeviceId deviceId, Map<CircuitId, CircuitState> circuitStates);
+
+    /**
+     * Like {@link #requestChangeCircuitStatuses}, and additionally tracks the device's acknowledgement of the new states,
+     * whichever instance handles it. Tracking starts before the command is sent, so an immediate acknowledgement is not missed.
+     *
+     * @param deviceId      device ID
+     * @param circuitStates new state per circuit
+     * @return the updated device and the pending acknowledgement
+     */
+    PendingCircuitStateChange requestChangeCircuitStatusesAwaitingAck(DeviceId deviceId, Map<CircuitId, CircuitState> circuitStates);
+
+    /**
+     * Applies a change committed by any instance, including this one, to what this instance holds in memory.
+     *
+     * @param deviceId device ID
+     * @param version  aggregate version the change committed
+     */
+    void receiveDeviceChanged(DeviceId deviceId, long version);
+
+    /**
+     * Completes this instance's waiters for circuit states acknowledged through any instance.
+     *
+     * @param deviceId device ID
+     * @param states   circuit states the device acknowledged
+     */
+    void receiveCircuitStatesAcknowledged(DeviceId deviceId, long states);
 
     /**
      * Handle a device command.
@@ -1,23 +1,43 @@
 package com.hydrogarden.business.device.app.service;
 
+import com.hydrogarden.business.device.app.store.CircuitStateAckRegistry;
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.app.stream.DeviceVitalsBroadcaster;
+import com.hydrogarden.business.device.core.commands.AckStateCommand;
 import com.hydrogarden.business.device.core.commands.DeviceCommand;
 import com.hydrogarden.business.device.core.commands.DeviceContext;
 import com.hydrogarden.business.device.core.commands.InboundDeviceCommand;
 import com.hydrogarden.business.device.core.commands.OutboundDeviceCommand;
 import com.hydrogarden.business.device.core.entity.*;
+import com.hydrogarden.business.device.core.fleet.FleetDeviceVitals;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsField;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsPage;
+import com.hydrogarden.business.device.core.port.out.DeviceChangePort;
 import com.hydrogarden.business.device.core.port.out.DeviceOutputPort;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device.infra.repository.DeviceFleetQueryRepository;
 import com.hydrogarden.business.device.infra.repository.DeviceRepository;
-import com.hydrogarden.common.AuthorizedForDevice;
-import com.hydrogarden.common.HydrogardenEventPublisher;
+import com.hydrogarden.common.AuthorizedForOwnedDevice;
 import com.hydrogarden.common.HydrogardenTimeProvider;
+import com.hydrogarden.common.OptimisticRetryExecutor;
 import com.hydrogarden.common.ServiceUtils;
+import com.hydrogarden.common.UserSecurityModel;
+import jakarta.persistence.CacheStoreMode;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 /**
  * Application Service for orchestrating Device use cases.
@@ -27,64 +47,137 @@ import java.util.List;
 @RequiredArgsConstructor
 @Service
 public class DeviceApplicationServiceImpl implements DeviceApplicationService {
+    private static final int MAX_FLEET_PAGE_SIZE = 1_000;
 
     private final DeviceRepository deviceRepository;
     private final DeviceOutputPort deviceOutputPort;
-    private final HydrogardenEventPublisher hydrogardenEventPublisher;
     private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final DeviceChangePublisher deviceChangePublisher;
+    private final DeviceSnapshotStore deviceSnapshotStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final EntityManager entityManager;
+    private final DeviceFleetQueryRepository deviceFleetQueryRepository;
+    private final DeviceVitalsReadModel deviceVitalsReadModel;
+    private final CircuitStateAckRegistry circuitStateAckRegistry;
+    private final DeviceChangePort deviceChangePort;
+    private final DeviceVitalsBroadcaster deviceVitalsBroadcaster;
 
     /**
-     * Rename a device.
+     * Rename a device. Only the device row changes, so the vitals version is force-incremented to advance the
+     * aggregate version; a concurrent vitals change then retries on top of the rename. Circuits are loaded so the
+     * published snapshot is a full one, the only kind whose name projections trust.
      *
      * @param deviceId device ID
      * @param newName  new device name
      */
     @Override
     @Transactional
-    @AuthorizedForDevice
+    @AuthorizedForOwnedDevice
     public Device renameDevice(DeviceId deviceId, String newName) {
-        Device device = deviceRepository.findById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        Device device = deviceRepository.findWithVitalsAndCircuitsById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        entityManager.lock(device.getDeviceVitals(), LockModeType.PESSIMISTIC_FORCE_INCREMENT);
         device.rename(newName);
         deviceRepository.save(device);
 
-        List<HydrogardenDomainEvent> domainEvents = device.getDomainEvents(); //DeviceRenamedDomainEvent
-
-        ServiceUtils.runAfterCommit(() -> {
-            hydrogardenEventPublisher.publish(domainEvents);
-            device.clearDomainEvents();
-        });
+        deviceChangePublisher.publishAfterCommit(device, true); //DeviceRenamedDomainEvent
 
         return device;
 
     }
 
+    /**
+     * Read-only, so it runs on the replica when one is configured.
+     */
     @Override
-    @Transactional
-    @AuthorizedForDevice
+    @Transactional(readOnly = true)
+    @AuthorizedForOwnedDevice
     public Device getDevice(DeviceId deviceId) {
-        return deviceRepository.findById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        // Rows read from a lagging replica must not end up in the shared second-level cache
+        entityManager.setProperty("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+        return deviceRepository.findWithVitalsAndCircuitsById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+    }
+
+    /**
+     * Served from {@link DeviceSnapshotStore}; a device not seen since startup is read from the read model by primary key,
+     * and the aggregate is loaded only when the read model has no row for it yet.
+     * Only the aggregate seeds the store: the read model is projected asynchronously and may lag behind it.
+     * An entry outdated by another instance's change is dropped when that change is broadcast, so the read model,
+     * which every instance keeps current, serves the device again once it has caught up with that change.
+     */
+    @Override
+    @AuthorizedForOwnedDevice
+    public DeviceSnapshot getDeviceSnapshot(DeviceId deviceId) {
+        return findSnapshot(deviceId);
+    }
+
+    private DeviceSnapshot findSnapshot(DeviceId deviceId) {
+        return deviceSnapshotStore.get(deviceId)
+                .or(() -> deviceVitalsReadModel.find(deviceId).filter(deviceSnapshotStore::isCurrent))
+                .orElseGet(() -> loadSnapshot(deviceId));
+    }
+
+    /**
+     * Loads the aggregate in a read-write transaction, so from the primary, and seeds the store with it.
+     */
+    private DeviceSnapshot loadSnapshot(DeviceId deviceId) {
+        return deviceSnapshotStore.seed(transactionTemplate.execute(status -> deviceRepository.findWithVitalsAndCircuitsById(deviceId)
+                .orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId))
+                .toSnapshot(true)));
+    }
+
+    /**
+     * One projection query, on the replica when one is configured.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FleetVitalsPage getFleetVitals(Short afterId, int limit, Set<FleetVitalsField> fields) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        UserSecurityModel user = (UserSecurityModel) SecurityContextHolder.getContext().getAuthentication();
+        int pageSize = Math.min(limit, MAX_FLEET_PAGE_SIZE);
+        List<FleetDeviceVitals> devices = deviceFleetQueryRepository.findPage(
+                user.getUserId().getValue(), afterId == null ? Short.MIN_VALUE : afterId, pageSize, fields);
+
+        Short nextAfterId = devices.size() < pageSize ? null : devices.getLast().id();
+        return new FleetVitalsPage(devices, nextAfterId);
+    }
+
+    /**
+     * Read-write on purpose: a read-only transaction would be routed to the replica, whose version may lag.
+     */
+    @Override
+    @Transactional
+    @AuthorizedForOwnedDevice
+    public OptionalLong getDeviceVersion(DeviceId deviceId) {
+        return deviceRepository.findAggregateVersionById(deviceId)
+                .map(OptionalLong::of)
+                .orElseGet(OptionalLong::empty);
     }
 
     @Override
     @Transactional
-    @AuthorizedForDevice
+    @AuthorizedForOwnedDevice
     public Device enableDevice(DeviceId deviceId) {
-        Device device = deviceRepository.findById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
-        OutboundDeviceCommand enableCommand = device.enable();
+        Device device = deviceRepository.findWithVitalsAndCircuitsById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        OutboundDeviceCommand enableCommand = device.enable(this.getDeviceContext());
 
         ServiceUtils.runAfterCommit(() -> {
             deviceOutputPort.sendDeviceCommand(enableCommand);
         });
 
         device = deviceRepository.save(device);
+        deviceChangePublisher.publishAfterCommit(device, false);
         return device;
     }
 
     @Override
     @Transactional
-    @AuthorizedForDevice
+    @AuthorizedForOwnedDevice
     public Device disableDevice(DeviceId deviceId) {
-        Device device = deviceRepository.findById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        Device device = deviceRepository.findWithVitalsAndCircuitsById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
         OutboundDeviceCommand newStateCommand = device.disable();
 
         ServiceUtils.runAfterCommit(() -> {
@@ -92,31 +185,93 @@ public class DeviceApplicationServiceImpl implements DeviceApplicationService {
         });
 
         device = deviceRepository.save(device);
+        deviceChangePublisher.publishAfterCommit(device, false);
         return device;
     }
 
     @Override
     @Transactional
-    @AuthorizedForDevice
-    public Device requestChangeCircuitStatus(DeviceId deviceId, CircuitId circuitId, CircuitState circuitState) {
-        Device device = deviceRepository.findById(deviceId).orElseThrow();
-        OutboundDeviceCommand newStatusCommand = device.requestChangeCircuitState(circuitId, circuitState);
+    @AuthorizedForOwnedDevice
+    public Device requestChangeCircuitStatuses(DeviceId deviceId, Map<CircuitId, CircuitState> circuitStates) {
+        return changeCircuitStates(deviceId, circuitStates, changed -> () -> {
+        });
+    }
+
+    @Override
+    @Transactional
+    @AuthorizedForOwnedDevice
+    public PendingCircuitStateChange requestChangeCircuitStatusesAwaitingAck(DeviceId deviceId, Map<CircuitId, CircuitState> circuitStates) {
+        CompletableFuture<DeviceSnapshot> acknowledged = new CompletableFuture<>();
+        Device device = changeCircuitStates(deviceId, circuitStates, changed -> {
+            long circuits = changed.getCircuitBits(circuitStates.keySet());
+            long desiredStates = changed.getDeviceVitals().getCircuitStateMask().getDesiredStates();
+            return () -> circuitStateAckRegistry.register(deviceId, circuits, desiredStates, acknowledged);
+        });
+        return new PendingCircuitStateChange(device, acknowledged);
+    }
+
+    /**
+     * Applies the desired states and sends them to the device as one NewState command after commit.
+     *
+     * @param beforeSend given the changed device, returns what to run after commit right before the command is sent
+     */
+    private Device changeCircuitStates(DeviceId deviceId, Map<CircuitId, CircuitState> circuitStates, Function<Device, Runnable> beforeSend) {
+        Device device = deviceRepository.findWithVitalsAndCircuitsById(deviceId).orElseThrow(() -> new IllegalArgumentException("Device not found: " + deviceId));
+        OutboundDeviceCommand newStatusCommand = device.requestChangeCircuitStates(circuitStates, this.getDeviceContext());
+        Runnable runBeforeSend = beforeSend.apply(device);
 
         ServiceUtils.runAfterCommit(() -> {
+            runBeforeSend.run();
             deviceOutputPort.sendDeviceCommand(newStatusCommand);
         });
 
         device = deviceRepository.save(device);
+        deviceChangePublisher.publishAfterCommit(device, true);
         return device;
     }
 
+    /**
+     * Subscribers streaming the device from this instance get the change too; the snapshot is read only for them.
+     */
+    @Override
+    public void receiveDeviceChanged(DeviceId deviceId, long version) {
+        deviceSnapshotStore.invalidate(deviceId, version);
+        if (deviceVitalsBroadcaster.isBehind(deviceId, version)) {
+            deviceVitalsBroadcaster.publish(findSnapshot(deviceId));
+        }
+    }
+
+    /**
+     * The acknowledgement is already committed when it is broadcast, so the loaded snapshot includes it.
+     */
+    @Override
+    public void receiveCircuitStatesAcknowledged(DeviceId deviceId, long states) {
+        circuitStateAckRegistry.acknowledge(deviceId, states, () -> loadSnapshot(deviceId));
+    }
+
+    /**
+     * Runs in its own transaction, retried when the routine changed the device concurrently.
+     * Responses are sent only after the winning attempt commits.
+     * The device is served from the second-level cache, so only its vitals are selected.
+     */
     @Override
-    @Transactional
     public void handleDeviceCommand(InboundDeviceCommand deviceCommand) {
-        Device device = deviceRepository.findById(deviceCommand.getDeviceId()).orElseThrow();
+        List<OutboundDeviceCommand> commands = optimisticRetryExecutor.execute("handleDeviceCommand", status -> {
+            Device device = deviceRepository.findById(deviceCommand.getDeviceId()).orElseThrow();
 
+            List<OutboundDeviceCommand> evaluatedCommands = device.handleInboundDeviceCommand(deviceCommand, this.getDeviceContext());
+            deviceChangePublisher.publishAfterCommit(device, false);
+            if (deviceCommand instanceof AckStateCommand) {
+                ServiceUtils.runAfterCommit(() -> {
+                    DeviceSnapshot acknowledged = device.toSnapshot(false);
+                    circuitStateAckRegistry.acknowledge(acknowledged);
+                    deviceChangePort.broadcastCircuitStatesAcknowledged(acknowledged.id(), acknowledged.version(),
+                            acknowledged.circuitStateMask().getStates());
+                });
+            }
+            return evaluatedCommands;
+        });
 
-        List<OutboundDeviceCommand> commands = device.handleInboundDeviceCommand(deviceCommand, this.getDeviceContext());
         sendDeviceCommands(commands, deviceCommand.getDeviceId());
     }
 
@@ -131,6 +286,6 @@ public class DeviceApplicationServiceImpl implements DeviceApplicationService {
     }
 
     private DeviceContext getDeviceContext() {
-        return new DeviceContext(hydrogardenTimeProvider.getCurrentTime());
+        return new DeviceContext(hydrogardenTimeProvider.getCurrentTimeMillis());
     }
 }
@@ -0,0 +1,63 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.DeviceSnapshotChangedDE;
+import com.hydrogarden.business.device.core.port.out.DeviceChangePort;
+import com.hydrogarden.business.device.core.port.out.DeviceEventStorePort;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.common.HydrogardenEventPublisher;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import com.hydrogarden.common.ServiceUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Publishes the domain events of a changed device, followed by its new snapshot, once the current transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceChangePublisher {
+
+    private final HydrogardenEventPublisher hydrogardenEventPublisher;
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final DomainEventCompactor domainEventCompactor;
+    private final ObjectProvider<DeviceEventStorePort> deviceEventStorePort;
+    private final DeviceSnapshotStore deviceSnapshotStore;
+    private final DeviceChangePort deviceChangePort;
+
+    /**
+     * Must be called inside the transaction that changed the device, after all changes are applied.
+     * The snapshot is taken after commit, so it carries the versions assigned by the flush. It is applied to
+     * {@link DeviceSnapshotStore} on the committing thread, so the writer reads its own change; only the listeners
+     * of the published events run asynchronously. Other instances learn the new version through {@link DeviceChangePort}.
+     * High-frequency events are only counted, see {@link DomainEventCompactor}.
+     * With the event store enabled, the events are also appended to the device's stream within the transaction.
+     *
+     * @param device          the changed device
+     * @param includeCircuits whether circuits were loaded by this transaction
+     */
+    public void publishAfterCommit(Device device, boolean includeCircuits) {
+        List<HydrogardenDomainEvent> events = new ArrayList<>(device.getDomainEvents());
+        device.clearDomainEvents();
+        DeviceEventStorePort store = deviceEventStorePort.getIfAvailable();
+        OptionalLong lastEventId = store == null ? OptionalLong.empty() : store.append(device.getId(), events);
+
+        ServiceUtils.runAfterCommit(() -> {
+            DeviceSnapshot snapshot = device.toSnapshot(includeCircuits);
+            deviceSnapshotStore.update(snapshot);
+            deviceChangePort.broadcastDeviceChanged(snapshot.id(), snapshot.version());
+            lastEventId.ifPresent(eventId -> store.snapshotIfDue(snapshot, eventId));
+
+            List<HydrogardenDomainEvent> published = domainEventCompactor.compact(events);
+            published.add(new DeviceSnapshotChangedDE(hydrogardenTimeProvider.getCurrentTime(), snapshot));
+            hydrogardenEventPublisher.publish(published);
+        });
+    }
+}
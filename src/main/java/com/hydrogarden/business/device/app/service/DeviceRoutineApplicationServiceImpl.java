@@ -8,60 +8,106 @@ import com.hydrogarden.business.device.core.entity.DeviceId;
 import com.hydrogarden.business.device.core.port.out.DeviceOutputPort;
 import com.hydrogarden.business.device.infra.repository.DeviceRepository;
 import com.hydrogarden.common.HydrogardenTimeProvider;
-import lombok.RequiredArgsConstructor;
+import com.hydrogarden.common.OptimisticRetryExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Application Service for running device routine tasks.
  * Handles periodic device evaluation and command execution.
  */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class DeviceRoutineApplicationServiceImpl implements DeviceRoutineApplicationService {
 
     private final DeviceRepository deviceRepository;
     private final DeviceOutputPort deviceOutputPort;
-    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
     private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final DeviceChangePublisher deviceChangePublisher;
+    private final int chunkSize;
+
+    public DeviceRoutineApplicationServiceImpl(DeviceRepository deviceRepository,
+                                               DeviceOutputPort deviceOutputPort,
+                                               OptimisticRetryExecutor optimisticRetryExecutor,
+                                               HydrogardenTimeProvider hydrogardenTimeProvider,
+                                               DeviceChangePublisher deviceChangePublisher,
+                                               @Value("${hydrogarden.routine.chunk-size:100}") int chunkSize) {
+        this.deviceRepository = deviceRepository;
+        this.deviceOutputPort = deviceOutputPort;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.deviceChangePublisher = deviceChangePublisher;
+        this.chunkSize = chunkSize;
+    }
 
     /**
      * Periodically evaluate all devices, send commands if necessary,
      * and acknowledge execution.
+     * Devices are evaluated in chunks: one select and one batched update per chunk.
      */
     @Override
     public void runDeviceRoutine() {
         log.debug("Device routine started");
-        List<Device> devices = deviceRepository.findAll();
+        List<DeviceId> deviceIds = deviceRepository.findAllIds();
 
-        for (Device device : devices) {
-            log.debug("Running device routine for device: id={}", device.getId());
-            evaluateAndExecute(device.getId());
+        for (int from = 0; from < deviceIds.size(); from += chunkSize) {
+            List<DeviceId> chunk = deviceIds.subList(from, Math.min(from + chunkSize, deviceIds.size()));
+            try {
+                evaluateAndExecute(chunk);
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Chunk of {} devices kept conflicting, evaluating them one by one", chunk.size());
+                evaluateOneByOne(chunk);
+            }
         }
         log.debug("Device routine finished.");
     }
 
+    private void evaluateOneByOne(List<DeviceId> deviceIds) {
+        for (DeviceId deviceId : deviceIds) {
+            try {
+                evaluateAndExecute(List.of(deviceId));
+            } catch (OptimisticLockingFailureException e) {
+                log.warn("Skipping device {} in this routine run, it kept changing concurrently", deviceId);
+            }
+        }
+    }
+
     /**
-     * Evaluates a device, sends the command if required, and acknowledges it.
+     * Evaluates devices in one transaction, then sends the commands they require.
+     * Re-evaluated on fresh state when an inbound command changed one of the devices concurrently.
      *
-     * @param deviceId the device to evaluate
+     * @param deviceIds the devices to evaluate
      */
-    private void evaluateAndExecute(DeviceId deviceId) {
+    private void evaluateAndExecute(List<DeviceId> deviceIds) {
 
-        List<OutboundDeviceCommand> commands = transactionTemplate.execute(status -> {
-            Device device = deviceRepository.findById(deviceId).orElseThrow();
-            device = deviceRepository.save(device);
-            return device.evaluateCurrentStateAndCommand(this.getDeviceContext());
-        });
+        Map<DeviceId, List<OutboundDeviceCommand>> commands = optimisticRetryExecutor.execute("runDeviceRoutine", status -> {
+            Map<DeviceId, List<OutboundDeviceCommand>> evaluatedCommands = new LinkedHashMap<>();
+            DeviceContext deviceContext = this.getDeviceContext();
 
-        sendDeviceCommands(commands, deviceId);
+            for (Device device : deviceRepository.findWithVitalsByIdIn(deviceIds)) {
+                log.debug("Running device routine for device: id={}", device.getId());
+                List<OutboundDeviceCommand> deviceCommands = device.evaluateCurrentStateAndCommand(deviceContext);
+                if (!deviceCommands.isEmpty()) {
+                    evaluatedCommands.put(device.getId(), deviceCommands);
+                }
 
-    }
+                // Vitals only change together with a domain event (state transition, keepalive)
+                if (!device.getDomainEvents().isEmpty()) {
+                    deviceChangePublisher.publishAfterCommit(device, false);
+                }
+            }
+            return evaluatedCommands;
+        });
 
+        commands.forEach((deviceId, deviceCommands) -> sendDeviceCommands(deviceCommands, deviceId));
+    }
     private void sendDeviceCommands(List<OutboundDeviceCommand> commands, DeviceId deviceId) {
         for (DeviceCommand command : commands) {
             try {
@@ -73,6 +119,6 @@ public class DeviceRoutineApplicationServiceImpl implements DeviceRoutineApplica
     }
 
     private DeviceContext getDeviceContext() {
-        return new DeviceContext(hydrogardenTimeProvider.getCurrentTime());
+        return new DeviceContext(hydrogardenTimeProvider.getCurrentTimeMillis());
     }
 }
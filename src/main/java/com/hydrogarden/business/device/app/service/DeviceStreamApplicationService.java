@@ -0,0 +1,25 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event streams of committed device vitals.
+ */
+public interface DeviceStreamApplicationService {
+
+    /**
+     * Stream of one device.
+     *
+     * @param deviceId    device ID
+     * @param lastEventId {@code Last-Event-ID} of a reconnecting client, null for a new stream
+     */
+    SseEmitter streamDevice(DeviceId deviceId, String lastEventId);
+
+    /**
+     * Stream of all devices owned by the authenticated user at the time of subscribing.
+     *
+     * @param lastEventId {@code Last-Event-ID} of a reconnecting client, null for a new stream
+     */
+    SseEmitter streamOwnedDevices(String lastEventId);
+}
@@ -0,0 +1,51 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.app.stream.DeviceVitalsBroadcaster;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.ownership.app.service.OwnershipApplicationService;
+import com.hydrogarden.common.AuthorizedForOwnedDevice;
+import com.hydrogarden.common.UserSecurityModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class DeviceStreamApplicationServiceImpl implements DeviceStreamApplicationService {
+
+    private final DeviceApplicationService deviceApplicationService;
+    private final DeviceSnapshotStore deviceSnapshotStore;
+    private final OwnershipApplicationService ownershipApplicationService;
+    private final DeviceVitalsBroadcaster deviceVitalsBroadcaster;
+    private final DeviceVitalsReadModel deviceVitalsReadModel;
+
+    @Override
+    @AuthorizedForOwnedDevice
+    public SseEmitter streamDevice(DeviceId deviceId, String lastEventId) {
+        DeviceSnapshot current = deviceApplicationService.getDeviceSnapshot(deviceId);
+        return deviceVitalsBroadcaster.subscribe(Set.of(deviceId), lastEventId, List.of(current));
+    }
+
+    /**
+     * Initial state comes from {@link DeviceSnapshotStore}, or from the read model for devices not seen since startup;
+     * a device in neither is streamed from its first change on.
+     */
+    @Override
+    public SseEmitter streamOwnedDevices(String lastEventId) {
+        UserSecurityModel user = (UserSecurityModel) SecurityContextHolder.getContext().getAuthentication();
+        Set<DeviceId> deviceIds = ownershipApplicationService.getOwnedDeviceIds(user.getUserId());
+
+        List<DeviceSnapshot> current = deviceIds.stream()
+                .map(deviceId -> deviceSnapshotStore.get(deviceId).or(() -> deviceVitalsReadModel.find(deviceId)))
+                .flatMap(Optional::stream)
+                .toList();
+        return deviceVitalsBroadcaster.subscribe(deviceIds, lastEventId, current);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device.infra.repository.DeviceVitalsViewRepository;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Denormalized per-device vitals table, the query side of the device module.
+ * <p>
+ * Rows are projected from committed {@link DeviceSnapshot}s and can always be rebuilt from the write tables,
+ * so a lost projection costs freshness until the next change or rebuild, never correctness.
+ */
+@Slf4j
+@Service
+public class DeviceVitalsReadModel {
+    private static final String METRIC_PREFIX = "hydrogarden.read_model";
+
+    private final DeviceVitalsViewRepository deviceVitalsViewRepository;
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final boolean rebuildOnStartup;
+    private final int rebuildBatchSize;
+    private final Timer lag;
+    private final Counter projected;
+    private final Counter failed;
+
+    public DeviceVitalsReadModel(DeviceVitalsViewRepository deviceVitalsViewRepository,
+                                 HydrogardenTimeProvider hydrogardenTimeProvider,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${hydrogarden.read-model.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                                 @Value("${hydrogarden.read-model.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.deviceVitalsViewRepository = deviceVitalsViewRepository;
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.lag = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("Time from committing a device change until it was projected to the read model")
+                .register(meterRegistry);
+        this.projected = meterRegistry.counter(METRIC_PREFIX + ".projected");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".failed");
+    }
+
+    public Optional<DeviceSnapshot> find(DeviceId deviceId) {
+        return deviceVitalsViewRepository.findById(deviceId);
+    }
+
+    /**
+     * Applies a committed change. Changes that did not load circuits only update existing rows; the circuits
+     * of a new row come with the next full snapshot or rebuild.
+     *
+     * @param committedAt time the change was published after its commit
+     */
+    public void project(DeviceSnapshot snapshot, LocalDateTime committedAt) {
+        LocalDateTime now = hydrogardenTimeProvider.getCurrentTime();
+        try {
+            if (snapshot.hasCircuits()) {
+                deviceVitalsViewRepository.upsert(snapshot, now);
+            } else {
+                deviceVitalsViewRepository.updateVitals(snapshot, now);
+            }
+            projected.increment();
+            lag.record(Duration.between(committedAt, now));
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Failed to project device {} at version {}", snapshot.id().getId(), snapshot.version(), e);
+        }
+    }
+
+    /**
+     * @return number of devices in the read model
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        int devices = deviceVitalsViewRepository.rebuild(hydrogardenTimeProvider.getCurrentTime(), rebuildBatchSize);
+        log.info("Rebuilt device vitals read model: devices={} took={}ms", devices, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return devices;
+    }
+
+    /**
+     * Catches up on changes made while this instance was down. Off by default: projections already keep the read model
+     * current across deploys, and a full rebuild is better started through the actuator endpoint when needed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+}
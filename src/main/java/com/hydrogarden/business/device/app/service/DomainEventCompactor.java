@@ -0,0 +1,86 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HighFrequencyDomainEvent;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.DeviceEventSummaryDE;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Folds {@link HighFrequencyDomainEvent}s into per-device counters instead of publishing each of them.
+ * The counters are drained periodically into a single {@link DeviceEventSummaryDE}.
+ */
+@Component
+public class DomainEventCompactor {
+
+    private record Key(DeviceId deviceId, Class<?> eventType) {
+    }
+
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Long> counters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> compacted = new ConcurrentHashMap<>();
+    private final AtomicReference<LocalDateTime> windowStart;
+
+    public DomainEventCompactor(HydrogardenTimeProvider hydrogardenTimeProvider, MeterRegistry meterRegistry) {
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.meterRegistry = meterRegistry;
+        this.windowStart = new AtomicReference<>(hydrogardenTimeProvider.getCurrentTime());
+    }
+
+    /**
+     * Counts the high-frequency events of the list.
+     *
+     * @return the remaining events, to be published as usual
+     */
+    public List<HydrogardenDomainEvent> compact(List<HydrogardenDomainEvent> events) {
+        List<HydrogardenDomainEvent> remaining = new ArrayList<>(events.size());
+        for (HydrogardenDomainEvent event : events) {
+            if (event instanceof HighFrequencyDomainEvent highFrequency) {
+                // Counted under the map's bin lock, so drain() removing the entry sees every increment or none
+                counters.merge(new Key(highFrequency.getDeviceId(), event.getClass()), 1L, Long::sum);
+                compacted.computeIfAbsent(event.getClass(), type ->
+                        meterRegistry.counter("hydrogarden.events.compacted", "event", type.getSimpleName())).increment();
+            } else {
+                remaining.add(event);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Resets the counters and starts a new window. Each counter is removed atomically with reading it, so events
+     * counted concurrently land in either this or the next window.
+     *
+     * @return summary of the closed window, empty if nothing was counted
+     */
+    public Optional<DeviceEventSummaryDE> drain() {
+        LocalDateTime now = hydrogardenTimeProvider.getCurrentTime();
+        LocalDateTime start = windowStart.getAndSet(now);
+
+        Map<DeviceId, Map<String, Long>> counts = new HashMap<>();
+        for (Key key : counters.keySet()) {
+            Long count = counters.remove(key);
+            if (count != null) {
+                counts.computeIfAbsent(key.deviceId(), id -> new HashMap<>()).put(key.eventType().getSimpleName(), count);
+            }
+        }
+
+        if (counts.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new DeviceEventSummaryDE(now, start, counts));
+    }
+}
@@ -0,0 +1,16 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A committed circuit state change whose acknowledgement by the device is still outstanding.
+ *
+ * @param device       the updated device
+ * @param acknowledged completed with the snapshot committed by the confirming AckState command, without circuits;
+ *                     cancel it when no longer waiting
+ */
+public record PendingCircuitStateChange(Device device, CompletableFuture<DeviceSnapshot> acknowledged) {
+}
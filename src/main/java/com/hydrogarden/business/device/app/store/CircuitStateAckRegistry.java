@@ -0,0 +1,106 @@
+package com.hydrogarden.business.device.app.store;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Correlates requested circuit states with the device acknowledgements that confirm them.
+ * <p>
+ * A waiter is keyed by device and the desired states of the circuits it changed, and completes with the snapshot
+ * of the first committed acknowledgement reporting those states. Waiters are removed once their future completes,
+ * including by cancellation, so callers that give up only need to cancel.
+ * <p>
+ * Waiters are held by the instance that sent the request, while the acknowledgement is handled by whichever instance
+ * consumed it; acknowledgements committed elsewhere arrive through the device changes broadcast.
+ */
+@Component
+public class CircuitStateAckRegistry {
+    private static final String METRIC_PREFIX = "hydrogarden.circuit_ack";
+
+    private record Waiter(long circuits, long desiredStates, CompletableFuture<DeviceSnapshot> result) {
+
+        boolean matches(long states) {
+            return ((states ^ desiredStates) & circuits) == 0;
+        }
+    }
+
+    private final Map<DeviceId, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter acknowledged;
+
+    public CircuitStateAckRegistry(MeterRegistry meterRegistry) {
+        this.acknowledged = meterRegistry.counter(METRIC_PREFIX + ".acknowledged");
+        meterRegistry.gauge(METRIC_PREFIX + ".pending", pending);
+    }
+
+    /**
+     * @param circuits      bits of the circuits to wait for
+     * @param desiredStates states the circuits must be acknowledged in, other bits are ignored
+     * @param result        completed with the acknowledged snapshot
+     */
+    public void register(DeviceId deviceId, long circuits, long desiredStates, CompletableFuture<DeviceSnapshot> result) {
+        Waiter waiter = new Waiter(circuits, desiredStates, result);
+        waiters.compute(deviceId, (id, deviceWaiters) -> {
+            Queue<Waiter> queue = deviceWaiters == null ? new ConcurrentLinkedQueue<>() : deviceWaiters;
+            queue.add(waiter);
+            return queue;
+        });
+        pending.incrementAndGet();
+        result.whenComplete((snapshot, e) -> remove(deviceId, waiter));
+    }
+
+    /**
+     * Completes the waiters of the device whose circuits are in their desired states.
+     *
+     * @param snapshot snapshot committed by an AckState command
+     */
+    public void acknowledge(DeviceSnapshot snapshot) {
+        acknowledge(snapshot.id(), snapshot.circuitStateMask().getStates(), () -> snapshot);
+    }
+
+    /**
+     * Completes the waiters of the device whose circuits are in their desired states, for an acknowledgement
+     * known only by the states it committed.
+     *
+     * @param states   circuit states committed by an AckState command
+     * @param snapshot supplies the snapshot to complete with; called at most once, and only if a waiter matches
+     */
+    public void acknowledge(DeviceId deviceId, long states, Supplier<DeviceSnapshot> snapshot) {
+        Queue<Waiter> deviceWaiters = waiters.get(deviceId);
+        if (deviceWaiters == null) {
+            return;
+        }
+        DeviceSnapshot acknowledgedSnapshot = null;
+        for (Waiter waiter : deviceWaiters) {
+            if (!waiter.matches(states) || waiter.result().isDone()) {
+                continue;
+            }
+            if (acknowledgedSnapshot == null) {
+                acknowledgedSnapshot = snapshot.get();
+            }
+            if (waiter.result().complete(acknowledgedSnapshot)) {
+                acknowledged.increment();
+            }
+        }
+    }
+
+    private void remove(DeviceId deviceId, Waiter waiter) {
+        waiters.computeIfPresent(deviceId, (id, deviceWaiters) -> {
+            if (deviceWaiters.remove(waiter)) {
+                pending.decrementAndGet();
+            }
+            return deviceWaiters.isEmpty() ? null : deviceWaiters;
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.hydrogarden.business.device.app.store;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory store of the latest committed {@link DeviceSnapshot} per device.
+ * Snapshots are immutable and replaced as a whole, so reads never lock and never see a partial update.
+ * <p>
+ * Alongside, it keeps the latest committed version per device. The version table is updated even when a snapshot
+ * cannot be stored, so a snapshot seeded later can be checked against it.
+ * <p>
+ * Changes committed by other instances arrive through {@link #invalidate} and drop the older stored snapshot.
+ */
+@Slf4j
+@Component
+public class DeviceSnapshotStore {
+    private final Map<DeviceId, DeviceSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<DeviceId, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * @return the latest complete snapshot, empty if the device has not been seen since startup
+     */
+    public Optional<DeviceSnapshot> get(DeviceId deviceId) {
+        return Optional.ofNullable(snapshots.get(deviceId));
+    }
+
+    /**
+     * Applies a snapshot produced by a committed change. Snapshots older than the stored one are ignored.
+     * Snapshots without circuits reuse the circuit metadata of the stored one; if there is none to reuse,
+     * the entry is dropped and the next read reloads it.
+     */
+    public void update(DeviceSnapshot snapshot) {
+        versions.merge(snapshot.id(), snapshot.version(), Math::max);
+        snapshots.compute(snapshot.id(), (id, previous) -> {
+            if (previous != null && previous.version() > snapshot.version()) {
+                return previous;
+            }
+            if (snapshot.hasCircuits()) {
+                return snapshot;
+            }
+            if (previous == null) {
+                return null;
+            }
+            return snapshot.withCircuitsOf(previous);
+        });
+    }
+
+    /**
+     * Seeds the store from a snapshot loaded on a read miss. Never replaces an entry written by a committed change
+     * in the meantime, and never stores a snapshot older than the latest committed version already known,
+     * e.g. one loaded from a lagging replica.
+     *
+     * @return the stored snapshot, or the given one if it was too old to be stored
+     */
+    public DeviceSnapshot seed(DeviceSnapshot snapshot) {
+        if (!snapshot.hasCircuits()) {
+            throw new IllegalArgumentException("Cannot seed snapshot of device %s without circuits".formatted(snapshot.id().getId()));
+        }
+        // update() advances the version before it writes the snapshot, so a stale seed is seen here or replaced there
+        DeviceSnapshot stored = snapshots.compute(snapshot.id(), (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            Long version = versions.get(id);
+            return version != null && version > snapshot.version() ? null : snapshot;
+        });
+        if (stored == null) {
+            return snapshot;
+        }
+        versions.merge(stored.id(), stored.version(), Math::max);
+        return stored;
+    }
+
+    /**
+     * Applies a change committed elsewhere, known only by its version. A stored snapshot older than that version is
+     * dropped, so the next read reloads it; the version is kept so that a reload older than it is not stored.
+     */
+    public void invalidate(DeviceId deviceId, long version) {
+        versions.merge(deviceId, version, Math::max);
+        snapshots.computeIfPresent(deviceId, (id, stored) -> stored.version() < version ? null : stored);
+    }
+
+    /**
+     * @return whether the snapshot, e.g. one read from the read model, is not older than a version known to have committed
+     */
+    public boolean isCurrent(DeviceSnapshot snapshot) {
+        Long version = versions.get(snapshot.id());
+        return version == null || version <= snapshot.version();
+    }
+
+    public void evict(DeviceId deviceId) {
+        snapshots.remove(deviceId);
+        versions.remove(deviceId);
+    }
+}
@@ -0,0 +1,290 @@
+package com.hydrogarden.business.device.app.stream;
+
+import com.hydrogarden.business.device.app.mapper.DeviceMapper;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.model.DeviceVitalsViewModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pushes committed device vitals to server-sent event subscribers.
+ * <p>
+ * Connections are held by the async servlet, so an idle subscriber costs no request thread. Each subscriber has
+ * a bounded queue drained by its own virtual thread; a subscriber whose queue overflows is evicted and resumes
+ * by reconnecting with {@code Last-Event-ID}. Recent events are kept in a replay buffer for that purpose;
+ * a client that fell further behind gets the current state of its devices instead.
+ * <p>
+ * Event ids are {@code epoch-sequence}, with a random epoch per broadcaster. Sequences restart with every instance and
+ * every restart, so an id carrying another epoch says nothing about this sequence and is answered with current state.
+ */
+@Slf4j
+@Component
+public class DeviceVitalsBroadcaster {
+    static final String VITALS_EVENT = "vitals";
+
+    private record StreamEvent(long id, DeviceId deviceId, DeviceVitalsViewModel vitals) {
+    }
+
+    private record Published(long version, DeviceVitalsViewModel vitals) {
+    }
+
+    private final String epoch;
+    private final int queueCapacity;
+    private final int replayCapacity;
+    private final long timeoutMs;
+    private final Counter evicted;
+
+    private final Deque<StreamEvent> replay = new ArrayDeque<>();
+    private final Map<DeviceId, Published> published = new HashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long lastEventId;
+
+    public DeviceVitalsBroadcaster(MeterRegistry meterRegistry,
+                                   @Value("${hydrogarden.device-stream.queue-capacity:64}") int queueCapacity,
+                                   @Value("${hydrogarden.device-stream.replay-capacity:1024}") int replayCapacity,
+                                   @Value("${hydrogarden.device-stream.timeout-ms:1800000}") long timeoutMs) {
+        this(meterRegistry, queueCapacity, replayCapacity, timeoutMs, Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36));
+    }
+
+    DeviceVitalsBroadcaster(MeterRegistry meterRegistry, int queueCapacity, int replayCapacity, long timeoutMs, String epoch) {
+        this.epoch = epoch;
+        this.queueCapacity = queueCapacity;
+        this.replayCapacity = replayCapacity;
+        this.timeoutMs = timeoutMs;
+        this.evicted = meterRegistry.counter("hydrogarden.device_stream.evicted");
+        meterRegistry.gauge("hydrogarden.device_stream.subscribers", subscribers, Collection::size);
+    }
+
+    /**
+     * Opens a stream of the given devices.
+     *
+     * @param lastEventId       {@code Last-Event-ID} sent by a reconnecting client, null for a new stream
+     * @param currentSnapshots  current state of the devices, sent first unless the client can resume from the replay buffer;
+     *                          a snapshot older than a version published meanwhile is replaced by the published one
+     */
+    public SseEmitter subscribe(Set<DeviceId> deviceIds, String lastEventId, Collection<DeviceSnapshot> currentSnapshots) {
+        Long resumeAfter = sequenceOf(lastEventId);
+        SseEmitter emitter = newEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(deviceIds, emitter);
+        Map<DeviceId, DeviceSnapshot> current = new HashMap<>();
+        currentSnapshots.forEach(snapshot -> current.put(snapshot.id(), snapshot));
+
+        boolean overflowed = false;
+        synchronized (this) {
+            long oldestReplayable = replay.isEmpty() ? this.lastEventId + 1 : replay.peekFirst().id();
+            if (resumeAfter != null && resumeAfter + 1 >= oldestReplayable && resumeAfter <= this.lastEventId) {
+                for (StreamEvent event : replay) {
+                    if (event.id() > resumeAfter && deviceIds.contains(event.deviceId())) {
+                        overflowed |= !subscriber.offer(event);
+                    }
+                }
+            } else {
+                for (DeviceId deviceId : deviceIds) {
+                    DeviceVitalsViewModel vitals = latestVitals(current.get(deviceId), published.get(deviceId));
+                    if (vitals != null) {
+                        overflowed |= !subscriber.offer(new StreamEvent(this.lastEventId, deviceId, vitals));
+                    }
+                }
+            }
+            if (!overflowed) {
+                subscribers.add(subscriber);
+            }
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        if (overflowed) {
+            subscriber.evict();
+        } else {
+            subscriber.start();
+        }
+        return emitter;
+    }
+
+    /**
+     * @return the sequence of an event id issued by this broadcaster, null for a missing, foreign or malformed id
+     */
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Newer of the caller's snapshot and the last published vitals; the snapshot may have been read before a publish
+     * that the subscriber, tagged with the current event id, would otherwise never see.
+     */
+    private static DeviceVitalsViewModel latestVitals(DeviceSnapshot snapshot, Published published) {
+        if (published != null && (snapshot == null || published.version() >= snapshot.version())) {
+            return published.vitals();
+        }
+        return snapshot == null ? null : DeviceMapper.INSTANCE.toViewModel(snapshot);
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * @return whether a subscriber streams the device and the given version has not been published to it yet
+     */
+    public synchronized boolean isBehind(DeviceId deviceId, long version) {
+        Published previous = published.get(deviceId);
+        if (previous != null && previous.version() >= version) {
+            return false;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.deviceIds.contains(deviceId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called once per change committed on this instance, and for streamed devices once per change committed elsewhere,
+     * with the merged snapshot of the device. Versions already streamed are skipped.
+     * Subscribers that overflow are evicted after the monitor is released: completing an emitter waits for its
+     * sender, which may be stuck writing to a slow client.
+     */
+    public void publish(DeviceSnapshot snapshot) {
+        if (!snapshot.hasCircuits()) {
+            return;
+        }
+
+        DeviceVitalsViewModel vitals = DeviceMapper.INSTANCE.toViewModel(snapshot);
+        List<Subscriber> overflowed = new ArrayList<>();
+        synchronized (this) {
+            Published previous = published.get(snapshot.id());
+            if (previous != null && previous.version() >= snapshot.version()) {
+                return;
+            }
+            published.put(snapshot.id(), new Published(snapshot.version(), vitals));
+
+            StreamEvent event = new StreamEvent(++lastEventId, snapshot.id(), vitals);
+            replay.addLast(event);
+            if (replay.size() > replayCapacity) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.deviceIds.contains(event.deviceId()) && !subscriber.offer(event)) {
+                    overflowed.add(subscriber);
+                }
+            }
+        }
+        overflowed.forEach(Subscriber::evict);
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedRateString = "${hydrogarden.device-stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private class Subscriber {
+        private static final StreamEvent HEARTBEAT = new StreamEvent(-1, null, null);
+
+        private final Set<DeviceId> deviceIds;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        private Subscriber(Set<DeviceId> deviceIds, SseEmitter emitter) {
+            this.deviceIds = deviceIds;
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("device-stream-sender").start(this::run);
+        }
+
+        /**
+         * @return false if the queue is full and the subscriber must be evicted
+         */
+        private boolean offer(StreamEvent event) {
+            return queue.offer(event);
+        }
+
+        private void heartbeat() {
+            // A full queue already makes progress visible to the client; no need to add to it
+            queue.offer(HEARTBEAT);
+        }
+
+        private void run() {
+            try {
+                while (!closed) {
+                    StreamEvent event = queue.take();
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(epoch + "-" + event.id())
+                                .name(VITALS_EVENT)
+                                .data(event.vitals()));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Device stream subscriber disconnected: {}", e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        private void evict() {
+            if (closed) {
+                return;
+            }
+            evicted.increment();
+            log.info("Evicting slow device stream subscriber of {} devices", deviceIds.size());
+            close();
+            emitter.complete();
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = sender;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.hydrogarden.business.device.core;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between the epoch-millisecond timestamps used on the device hot path
+ * and the UTC {@link LocalDateTime} values exposed to events and view models.
+ */
+public class TimeUtils {
+    /**
+     * Marks a timestamp that has never been recorded.
+     */
+    public static final long NEVER = 0L;
+
+    public static long toEpochMillis(LocalDateTime time) {
+        return time == null ? NEVER : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        if (epochMillis == NEVER) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMillis, 1000L), (int) Math.floorMod(epochMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+}
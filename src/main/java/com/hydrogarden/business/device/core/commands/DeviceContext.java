@@ -1,6 +1,24 @@
 package com.hydrogarden.business.device.core.commands;
 
+import com.hydrogarden.business.device.core.TimeUtils;
+
 import java.time.LocalDateTime;
 
-public record DeviceContext(LocalDateTime now) {
-};
+/**
+ * Evaluation context of a device.
+ *
+ * @param nowMillis current time in epoch milliseconds, used for all timing comparisons
+ */
+public record DeviceContext(long nowMillis) {
+
+    public DeviceContext(LocalDateTime now) {
+        this(TimeUtils.toEpochMillis(now));
+    }
+
+    /**
+     * @return current time as UTC wall-clock time; allocates, so only use it for events and persisted values
+     */
+    public LocalDateTime now() {
+        return TimeUtils.toLocalDateTime(nowMillis);
+    }
+}
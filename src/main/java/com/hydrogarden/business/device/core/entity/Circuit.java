@@ -2,9 +2,17 @@ package com.hydrogarden.business.device.core.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+/**
+ * Circuit metadata. Actual and desired states live in the owning device's
+ * {@link CircuitStateMask} at position {@link #bitIndex}.
+ */
 @Entity
 @Table(name = "circuit")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "circuit")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Circuit {
@@ -12,32 +20,36 @@ public class Circuit {
     @Getter
     private CircuitId id;
 
-    @Column
-    @Getter
-    @Setter
-    @AttributeOverrides({
-            @AttributeOverride(name = "value", column = @Column(name = "state"))
-    })
-    private CircuitState state;
-
     @Column
     @Setter
     @Getter
     private String name;
 
+    /**
+     * Position of this circuit in the device's state bitmask and in state payloads.
+     */
+    @Column(nullable = false)
     @Getter
-    @Setter
-    @Column
-    @AttributeOverrides({
-            @AttributeOverride(name = "value", column = @Column(name = "desired_state"))
-    })
-    private CircuitState desiredState;
+    private short bitIndex;
 
+    @MapsId("deviceId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "device_id")
     private Device device;
 
+    public CircuitState getState() {
+        return stateMask().getState(bitIndex);
+    }
+
+    public CircuitState getDesiredState() {
+        return stateMask().getDesiredState(bitIndex);
+    }
+
     public boolean isUnsynchronised() {
-        return !desiredState.equals(state);
+        return stateMask().isUnsynchronised(bitIndex);
+    }
+
+    private CircuitStateMask stateMask() {
+        return device.getDeviceVitals().getCircuitStateMask();
     }
 }
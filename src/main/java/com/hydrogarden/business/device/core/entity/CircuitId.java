@@ -1,10 +1,16 @@
 package com.hydrogarden.business.device.core.entity;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
+import jakarta.persistence.Embedded;
 import lombok.*;
 
 import java.io.Serializable;
 
+/**
+ * Circuit key: circuit IDs are unique within their device only.
+ */
 @Embeddable
 @Getter
 @Setter
@@ -12,5 +18,18 @@ import java.io.Serializable;
 @NoArgsConstructor
 @EqualsAndHashCode
 public class CircuitId implements Serializable {
+
+    @Embedded
+    @AttributeOverride(name = "id", column = @Column(name = "device_id"))
+    private DeviceId deviceId;
+
+    @Column(name = "id")
     private Short id;
+
+    /**
+     * Circuit ID as addressed within its device, e.g. from a request path. The device is implied by the aggregate.
+     */
+    public CircuitId(Short id) {
+        this(null, id);
+    }
 }
@@ -15,4 +15,7 @@ public class CircuitState {
     @Column
     private final Boolean value;
 
+    public static CircuitState of(boolean value) {
+        return value ? ON : OFF;
+    }
 }
@@ -0,0 +1,108 @@
+package com.hydrogarden.business.device.core.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Actual and desired states of all circuits of a device, packed into two bitmasks.
+ * Bit {@code i} holds the state of the circuit with {@code bitIndex == i}.
+ */
+@Embeddable
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class CircuitStateMask {
+    public static final int MAX_CIRCUITS = Long.SIZE;
+
+    @Column(name = "circuit_count", nullable = false)
+    private short circuitCount;
+
+    @Column(name = "circuit_states", nullable = false)
+    private long states;
+
+    @Column(name = "desired_circuit_states", nullable = false)
+    private long desiredStates;
+
+    public static CircuitStateMask allOff(int circuitCount) {
+        if (circuitCount < 0 || circuitCount > MAX_CIRCUITS) {
+            throw new IllegalArgumentException("Unsupported circuit count %d".formatted(circuitCount));
+        }
+        return new CircuitStateMask((short) circuitCount, 0L, 0L);
+    }
+
+    public CircuitState getState(int index) {
+        return CircuitState.of(isSet(states, index));
+    }
+
+    public CircuitState getDesiredState(int index) {
+        return CircuitState.of(isSet(desiredStates, index));
+    }
+
+    /**
+     * @return actual states of all circuits, ordered by bit index
+     */
+    public List<CircuitState> getStateList() {
+        List<CircuitState> result = new ArrayList<>(circuitCount);
+        for (int i = 0; i < circuitCount; i++) {
+            result.add(getState(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return desired states of all circuits, ordered by bit index
+     */
+    public List<CircuitState> getDesiredStateList() {
+        List<CircuitState> result = new ArrayList<>(circuitCount);
+        for (int i = 0; i < circuitCount; i++) {
+            result.add(getDesiredState(i));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the actual states with the states reported by the device.
+     * Entries beyond {@link #circuitCount} (padding of the packed payload) are ignored.
+     */
+    public CircuitStateMask withStates(List<CircuitState> circuitStates) {
+        long packed = 0L;
+        int count = Math.min(circuitCount, circuitStates.size());
+        for (int i = 0; i < count; i++) {
+            if (circuitStates.get(i).getValue()) {
+                packed |= 1L << i;
+            }
+        }
+        return new CircuitStateMask(circuitCount, packed, desiredStates);
+    }
+
+    public CircuitStateMask withDesiredState(int index, CircuitState circuitState) {
+        checkIndex(index);
+        long bit = 1L << index;
+        long packed = circuitState.getValue() ? desiredStates | bit : desiredStates & ~bit;
+        return new CircuitStateMask(circuitCount, states, packed);
+    }
+
+    public boolean isUnsynchronised() {
+        return states != desiredStates;
+    }
+
+    public boolean isUnsynchronised(int index) {
+        return isSet(states, index) != isSet(desiredStates, index);
+    }
+
+    private boolean isSet(long mask, int index) {
+        checkIndex(index);
+        return (mask & (1L << index)) != 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= circuitCount) {
+            throw new IndexOutOfBoundsException("Circuit index %d out of range [0, %d)".formatted(index, circuitCount));
+        }
+    }
+}
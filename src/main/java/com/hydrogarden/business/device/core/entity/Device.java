@@ -1,27 +1,51 @@
 package com.hydrogarden.business.device.core.entity;
 
+import com.hydrogarden.business.device.core.TimeUtils;
 import com.hydrogarden.business.device.core.commands.*;
-import com.hydrogarden.business.device.core.event.KeepaliveSentDE;
-import com.hydrogarden.business.device.core.event.RegisteredDeviceShutdownDE;
-import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import com.hydrogarden.business.device.core.event.*;
+import com.hydrogarden.business.device.core.snapshot.CircuitSnapshot;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.util.Assert;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
 
 /**
  * Aggregate root representing a Device in the system.
  * Handles device state, command requests, acknowledgements, and heartbeat evaluation.
+ * <p>
+ * The device row, its circuits and ownerships change rarely and are second-level cached;
+ * {@link DeviceVitals} change with every message and are always read from the database.
  */
 @Entity
 @Table(name = "device")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "device")
+@NamedEntityGraphs({
+        @NamedEntityGraph(name = Device.WITH_VITALS, attributeNodes = @NamedAttributeNode("deviceVitals")),
+        @NamedEntityGraph(name = Device.WITH_VITALS_AND_CIRCUITS, attributeNodes = {
+                @NamedAttributeNode("deviceVitals"),
+                @NamedAttributeNode("circuits")
+        })
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Device extends HydrogardenAgreggateRoot {
 
+    /**
+     * Fetch plan for paths that only evaluate liveness and state: inbound commands and the routine.
+     */
+    public static final String WITH_VITALS = "Device.withVitals";
+
+    /**
+     * Fetch plan for paths that read or change circuits.
+     */
+    public static final String WITH_VITALS_AND_CIRCUITS = "Device.withVitalsAndCircuits";
+
     // ------------------- Getters -------------------
     /**
      * Unique identifier of the device (aggregate ID)
@@ -38,9 +62,19 @@ public class Device extends HydrogardenAgreggateRoot {
     private String name;
 
     /**
-     * Circuits associated with this device.
+     * Optimistic lock version of the device row. See {@link #getAggregateVersion()} for the version of the whole aggregate.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Circuits associated with this device. Only names and bit positions live here;
+     * states are kept in {@link DeviceVitals#getCircuitStateMask()}.
      */
     @OneToMany(mappedBy = "device", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("bitIndex")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "device-circuits")
     private List<Circuit> circuits;
 
     @Column(nullable = false)
@@ -58,37 +92,92 @@ public class Device extends HydrogardenAgreggateRoot {
     private Duration newStateInterval;
 
     @Getter
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "id", referencedColumnName = "id")
     private DeviceVitals deviceVitals;
 
     @Getter
     @OneToMany
     @JoinColumn(name = "device_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "device-owners")
     private Set<DeviceOwnership> deviceOwners;
 
+    /**
+     * Circuits by their ID within this device, built on first lookup. Circuits are fixed for the lifetime
+     * of a loaded aggregate. Keyed by the local part so callers may pass IDs without the device part.
+     */
+    @Transient
+    private final Map<Short, Circuit> circuitIndex = new HashMap<>();
+
 
     // ------------------- Domain Behavior -------------------
 
-    public OutboundDeviceCommand requestChangeCircuitState(CircuitId circuitId, CircuitState newState) {
+    public OutboundDeviceCommand requestChangeCircuitState(CircuitId circuitId, CircuitState newState, DeviceContext deviceContext) {
+        return requestChangeCircuitStates(Map.of(circuitId, newState), deviceContext);
+    }
+
+    /**
+     * Changes desired states of several circuits at once. Either all changes are applied or none.
+     *
+     * Raises {@link NewStateSentDE} only when the desired states actually change; the routine's resends of the
+     * same desired states are not recorded again.
+     *
+     * @param newStates desired state per circuit
+     * @return a single NewStateCommand carrying desired states of all circuits
+     */
+    public OutboundDeviceCommand requestChangeCircuitStates(Map<CircuitId, CircuitState> newStates, DeviceContext deviceContext) {
         if (this.deviceVitals.getState() != DeviceState.ALIVE) {
             throw new IllegalStateException("Cannot change circuit state of a dead device");
         }
-        Optional<Circuit> circuitOptional = this.circuits.stream().filter(c -> c.getId().equals(circuitId)).findFirst();
 
-        if (circuitOptional.isEmpty()) {
-            throw new IllegalArgumentException("Circuit %s not found".formatted(circuitId.getId()));
+        CircuitStateMask previous = this.deviceVitals.getCircuitStateMask();
+        CircuitStateMask circuitStateMask = previous;
+        for (Map.Entry<CircuitId, CircuitState> change : newStates.entrySet()) {
+            Circuit circuit = getCircuit(change.getKey());
+            circuitStateMask = circuitStateMask.withDesiredState(circuit.getBitIndex(), change.getValue());
         }
-        Circuit circuit = circuitOptional.get();
+        this.deviceVitals.setCircuitStateMask(circuitStateMask);
 
-        circuit.setDesiredState(newState);
+        if (previous.getDesiredStates() != circuitStateMask.getDesiredStates()) {
+            this.registerDomainEvent(new NewStateSentDE(deviceContext.now(), this.id, circuitStateMask.getStateList(), circuitStateMask.getDesiredStateList()));
+        }
 
-        return new NewStateCommand(id, this.circuits.stream().map(Circuit::getDesiredState).toList());
+        return new NewStateCommand(id, circuitStateMask.getDesiredStateList());
+    }
+
+    /**
+     * @return mask with the bits of the given circuits set, as laid out in {@link CircuitStateMask}
+     */
+    public long getCircuitBits(Collection<CircuitId> circuitIds) {
+        long bits = 0L;
+        for (CircuitId circuitId : circuitIds) {
+            bits |= 1L << getCircuit(circuitId).getBitIndex();
+        }
+        return bits;
     }
 
-    private void acknowledgeAckStateReceived(List<CircuitState> circuitStates, DeviceContext now) {
-        for (int i = 0; i < this.circuits.size(); i++) {
-            circuits.get(i).setState(circuitStates.get(i));
+    private Circuit getCircuit(CircuitId circuitId) {
+        if (this.circuitIndex.isEmpty()) {
+            this.circuits.forEach(c -> this.circuitIndex.put(c.getId().getId(), c));
+        }
+
+        if (circuitId.getDeviceId() != null && !circuitId.getDeviceId().equals(this.id)) {
+            throw new IllegalArgumentException("Circuit %s belongs to another device".formatted(circuitId.getId()));
+        }
+        Circuit circuit = this.circuitIndex.get(circuitId.getId());
+        if (circuit == null) {
+            throw new IllegalArgumentException("Circuit %s not found".formatted(circuitId.getId()));
+        }
+        return circuit;
+    }
+
+    private void acknowledgeAckStateReceived(List<CircuitState> circuitStates, DeviceContext deviceContext) {
+        CircuitStateMask previous = this.deviceVitals.getCircuitStateMask();
+        CircuitStateMask acknowledged = previous.withStates(circuitStates);
+        this.deviceVitals.setCircuitStateMask(acknowledged);
+
+        if (previous.getStates() != acknowledged.getStates()) {
+            this.registerDomainEvent(new RegisteredDeviceStateChangeDE(deviceContext.now(), this.id, previous.getStateList(), acknowledged.getStateList()));
         }
     }
 
@@ -96,11 +185,20 @@ public class Device extends HydrogardenAgreggateRoot {
      * @param ackConfigCommand
      */
     private void acknowledgeAckConfigReceived(AckConfigCommand ackConfigCommand, DeviceContext deviceContext) {
-        this.deviceVitals.setDeviceConfig(new DeviceConfig(ackConfigCommand.getStandbyTimeout(), ackConfigCommand.getHeartbeatInterval()));
+        updateDeviceConfig(new DeviceConfig(ackConfigCommand.getStandbyTimeout(), ackConfigCommand.getHeartbeatInterval()), deviceContext);
     }
 
     private void acknowledgeRequestConfigReceived(RequestConfigCommand requestConfigCommand, DeviceContext deviceContext) {
-        this.deviceVitals.setDeviceConfig(new DeviceConfig());
+        updateDeviceConfig(new DeviceConfig(), deviceContext);
+    }
+
+    private void updateDeviceConfig(DeviceConfig newConfig, DeviceContext deviceContext) {
+        DeviceConfig previous = this.deviceVitals.getDeviceConfig();
+        this.deviceVitals.setDeviceConfig(newConfig);
+
+        if (!Objects.equals(previous, newConfig)) {
+            this.registerDomainEvent(new RegisteredDeviceConfigChangeDE(deviceContext.now(), this.id, previous, newConfig));
+        }
     }
 
     /**
@@ -114,36 +212,43 @@ public class Device extends HydrogardenAgreggateRoot {
     }
 
     private List<OutboundDeviceCommand> evaluateCommands(DeviceContext deviceContext) {
-        List<OutboundDeviceCommand> commands = new ArrayList<>();
-
         if (this.shouldSendConfig(deviceContext)) {
-            OutboundDeviceCommand command = this.requestSendingConfig(deviceContext);
-            commands.add(command);
-            return commands;
+            return List.of(this.requestSendingConfig(deviceContext));
         }
 
-        if (this.shouldSendKeepalive(deviceContext)) {
-            OutboundDeviceCommand command = this.requestKeepAlive(deviceContext.now());
-            commands.add(command);
+        boolean sendKeepalive = this.shouldSendKeepalive(deviceContext);
+        boolean sendNewState = this.shouldSendNewState(deviceContext);
+
+        // Steady state: nothing to send, nothing to allocate
+        if (!sendKeepalive && !sendNewState) {
+            return List.of();
+        }
+
+        List<OutboundDeviceCommand> commands = new ArrayList<>(2);
+
+        if (sendKeepalive) {
+            commands.add(this.requestKeepAlive(deviceContext));
         }
 
-        if (this.shouldSendNewState(deviceContext)) {
-            OutboundDeviceCommand command = this.requestSendingNewState(deviceContext.now());
-            commands.add(command);
+        if (sendNewState) {
+            commands.add(this.requestSendingNewState(deviceContext));
         }
 
         return commands;
     }
 
+    /**
+     * Resends the desired config. Not recorded as {@link ConfigSentDE}: only the send caused by enabling the device is.
+     */
     private OutboundDeviceCommand requestSendingConfig(DeviceContext deviceContext) {
         return new ConfigCommand(this.id, this.deviceVitals.getDesiredDeviceConfig().getStandbyTimeout(), this.deviceVitals.getDesiredDeviceConfig().getHeartbeatInterval());
     }
 
     private boolean shouldSendConfig(DeviceContext deviceContext) {
         boolean timeForConfigCommand = hasIntervalElapsed(
-            this.deviceVitals.getLastConfigSendTime(),
+            this.deviceVitals.getLastConfigSendMillis(),
             this.configInterval,
-            deviceContext.now()
+            deviceContext.nowMillis()
         );
 
         return this.deviceVitals.getDesiredState() == DeviceState.ALIVE &&
@@ -153,18 +258,20 @@ public class Device extends HydrogardenAgreggateRoot {
 
     private boolean shouldSendNewState(DeviceContext deviceContext) {
         boolean timeForNewStateCommand = hasIntervalElapsed(
-            this.deviceVitals.getLastNewStateSendTime(),
+            this.deviceVitals.getLastNewStateSendMillis(),
             this.newStateInterval,
-            deviceContext.now()
+            deviceContext.nowMillis()
         );
         return timeForNewStateCommand &&
                hasUnsynchronizedCircuits() &&
                isFullyAlive();
     }
 
-    private OutboundDeviceCommand requestSendingNewState(LocalDateTime now) {
-
-        return new NewStateCommand(id, this.circuits.stream().map(Circuit::getDesiredState).toList());
+    /**
+     * Resends the desired states. Not recorded as {@link NewStateSentDE}, which is raised when the desired states change.
+     */
+    private OutboundDeviceCommand requestSendingNewState(DeviceContext deviceContext) {
+        return new NewStateCommand(id, this.deviceVitals.getCircuitStateMask().getDesiredStateList());
     }
 
     /**
@@ -178,12 +285,16 @@ public class Device extends HydrogardenAgreggateRoot {
     }
 
     /**
-     * Enables the device by setting it's desired state to ALIVE.
+     * Enables the device by setting it's desired state to ALIVE. Raises {@link ConfigSentDE} when the desired state changes.
      *
      * @return Enable command
      */
-    public OutboundDeviceCommand enable() {
-        return this.updateDesiredState(DeviceState.ALIVE);
+    public OutboundDeviceCommand enable(DeviceContext deviceContext) {
+        OutboundDeviceCommand configCommand = this.updateDesiredState(DeviceState.ALIVE);
+        if (configCommand != null) {
+            this.registerDomainEvent(new ConfigSentDE(deviceContext.now(), this.id, this.deviceVitals.getDeviceConfig(), this.deviceVitals.getDesiredDeviceConfig()));
+        }
+        return configCommand;
     }
 
     private OutboundDeviceCommand updateDesiredState(DeviceState newDesiredState){
@@ -208,7 +319,7 @@ public class Device extends HydrogardenAgreggateRoot {
      */
     public OutboundDeviceCommand disable() {
         this.updateDesiredState(DeviceState.DEAD);
-        return new NewStateCommand(id, this.circuits.stream().map(c -> new CircuitState(false)).toList());
+        return new NewStateCommand(id, Collections.nCopies(this.deviceVitals.getCircuitStateMask().getCircuitCount(), CircuitState.OFF));
     }
 
     /**
@@ -218,9 +329,9 @@ public class Device extends HydrogardenAgreggateRoot {
      */
     private boolean shouldSendKeepalive(DeviceContext deviceContext) {
         boolean timeForKeepaliveCommand = hasIntervalElapsed(
-            this.deviceVitals.getLastKeepAliveSendTime(),
+            this.deviceVitals.getLastKeepAliveSendMillis(),
             this.keepaliveInterval,
-            deviceContext.now()
+            deviceContext.nowMillis()
         );
 
         return isFullyAlive() && timeForKeepaliveCommand;
@@ -229,12 +340,12 @@ public class Device extends HydrogardenAgreggateRoot {
     /**
      * Requests a KeepAlive command for this device.
      *
-     * @param now current time
+     * @param deviceContext evaluation context
      * @return the KeepAlive DeviceCommand
      */
-    private OutboundDeviceCommand requestKeepAlive(LocalDateTime now) {
-        this.deviceVitals.setLastKeepAliveSendTime(now);
-        this.registerDomainEvent(new KeepaliveSentDE(this.id, now));
+    private OutboundDeviceCommand requestKeepAlive(DeviceContext deviceContext) {
+        this.deviceVitals.setLastKeepAliveSendMillis(deviceContext.nowMillis());
+        this.registerDomainEvent(new KeepaliveSentDE(this.id, deviceContext.now()));
         return new KeepAliveCommand(this.id);
     }
 
@@ -249,17 +360,53 @@ public class Device extends HydrogardenAgreggateRoot {
         updateDeviceState(targetState, deviceContext);
     }
 
+    /**
+     * Version of the aggregate as a whole: the vitals row version, which every committed change of the aggregate
+     * increments. Changes that only touch the device row must force-increment it, so two snapshots with the same
+     * version always describe the same state.
+     */
+    public long getAggregateVersion() {
+        return this.deviceVitals.getVersion();
+    }
+
     public List<Circuit> getCircuits() {
         return Collections.unmodifiableList(circuits);
     }
 
+    /**
+     * Captures the current state of the device.
+     *
+     * @param includeCircuits whether to include circuit metadata; pass false when circuits have not been loaded
+     *                        to avoid fetching them just for the snapshot
+     */
+    public DeviceSnapshot toSnapshot(boolean includeCircuits) {
+        List<CircuitSnapshot> circuitSnapshots = null;
+        if (includeCircuits) {
+            circuitSnapshots = this.circuits.stream()
+                .map(c -> new CircuitSnapshot(c.getId(), c.getName(), c.getBitIndex(), c.getState(), c.getDesiredState()))
+                .toList();
+        }
+
+        return new DeviceSnapshot(
+            this.id,
+            getAggregateVersion(),
+            this.name,
+            this.deviceVitals.getState(),
+            this.deviceVitals.getDesiredState(),
+            this.deviceVitals.getLastKeepAliveSendTime(),
+            this.deviceVitals.getLastCommandReceiveTime(),
+            this.deviceVitals.getCircuitStateMask(),
+            circuitSnapshots
+        );
+    }
+
     /**
      * Checks if the specified interval has elapsed since the last send time.
-     * Returns true if lastSendTime is null (never sent) or interval has elapsed.
+     * Returns true if lastSendMillis is {@link TimeUtils#NEVER} (never sent) or interval has elapsed.
      */
-    private boolean hasIntervalElapsed(LocalDateTime lastSendTime, Duration interval, LocalDateTime now) {
-        return lastSendTime == null ||
-               Duration.between(lastSendTime, now).compareTo(interval) > 0;
+    private boolean hasIntervalElapsed(long lastSendMillis, Duration interval, long nowMillis) {
+        return lastSendMillis == TimeUtils.NEVER ||
+               nowMillis - lastSendMillis > interval.toMillis();
     }
 
     /**
@@ -284,25 +431,20 @@ public class Device extends HydrogardenAgreggateRoot {
      * Checks if any circuit is unsynchronized.
      */
     private boolean hasUnsynchronizedCircuits() {
-        return this.circuits.stream().anyMatch(Circuit::isUnsynchronised);
+        return this.deviceVitals.getCircuitStateMask().isUnsynchronised();
     }
 
     /**
      * Determines if heartbeat was received on time based on standby timeout.
      */
     private boolean isHeartbeatReceivedOnTime(DeviceContext deviceContext) {
-        if (this.deviceVitals.getLastCommandReceiveTime() == null) {
+        long lastCommandReceiveMillis = this.deviceVitals.getLastCommandReceiveMillis();
+        if (lastCommandReceiveMillis == TimeUtils.NEVER) {
             return false;
         }
 
-        Duration timeSinceLastCommand = Duration.between(
-            this.deviceVitals.getLastCommandReceiveTime(),
-            deviceContext.now()
-        );
-
-        return timeSinceLastCommand.compareTo(
-            this.deviceVitals.getDesiredDeviceConfig().getStandbyTimeout()
-        ) < 0;
+        return deviceContext.nowMillis() - lastCommandReceiveMillis <
+               this.deviceVitals.getDesiredDeviceConfig().getStandbyTimeout().toMillis();
     }
 
     /**
@@ -354,6 +496,6 @@ public class Device extends HydrogardenAgreggateRoot {
             updateDeviceState(DeviceState.ALIVE, deviceContext);
         }
 
-        this.deviceVitals.setLastCommandReceiveTime(deviceContext.now());
+        this.deviceVitals.setLastCommandReceiveMillis(deviceContext.nowMillis());
     }
 }
@@ -4,9 +4,13 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "device_ownership")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "device-ownership")
 @NoArgsConstructor
 @AllArgsConstructor
 public class DeviceOwnership {
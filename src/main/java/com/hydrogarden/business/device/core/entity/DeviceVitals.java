@@ -1,5 +1,6 @@
 package com.hydrogarden.business.device.core.entity;
 
+import com.hydrogarden.business.device.core.TimeUtils;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -18,6 +19,11 @@ public class DeviceVitals {
     @AttributeOverrides({@AttributeOverride(name = "id", column = @Column(name = "id"))})
     private DeviceId id;
 
+    @Getter
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     /**
      * Current known operational state of the device.
      */
@@ -33,18 +39,18 @@ public class DeviceVitals {
     private DeviceState desiredState;
 
     /**
-     * Timestamp when the last KeepAlive command was sent
+     * Epoch millis when the last KeepAlive command was sent, {@link TimeUtils#NEVER} if never
      */
     @Getter
-    @Column
-    private LocalDateTime lastKeepAliveSendTime;
+    @Column(name = "last_keep_alive_send_ms", nullable = false)
+    private long lastKeepAliveSendMillis;
 
     /**
-     * Timestamp of the last heartbeat signal received from the device
+     * Epoch millis of the last command received from the device, {@link TimeUtils#NEVER} if never
      */
     @Getter
-    @Column
-    private LocalDateTime lastCommandReceiveTime;
+    @Column(name = "last_command_receive_ms", nullable = false)
+    private long lastCommandReceiveMillis;
 
     @Column
     @Getter
@@ -61,15 +67,56 @@ public class DeviceVitals {
     private DeviceConfig desiredDeviceConfig;
 
     @Getter
-    @Column
-    private LocalDateTime lastConfigSendTime;
+    @Column(name = "last_config_send_ms", nullable = false)
+    private long lastConfigSendMillis;
 
     @Getter
-    @Column
-    private LocalDateTime lastNewStateSendTime;
+    @Column(name = "last_new_state_send_ms", nullable = false)
+    private long lastNewStateSendMillis;
+
+    /**
+     * Actual and desired circuit states, kept on this row so that state changes are single-row updates.
+     */
+    @Getter
+    @Embedded
+    private CircuitStateMask circuitStateMask;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @MapsId
     @JoinColumn(name = "id")
     private Device device;
+
+    // ------------------- UTC views of the epoch-millis timestamps -------------------
+
+    public LocalDateTime getLastKeepAliveSendTime() {
+        return TimeUtils.toLocalDateTime(lastKeepAliveSendMillis);
+    }
+
+    public void setLastKeepAliveSendTime(LocalDateTime time) {
+        this.lastKeepAliveSendMillis = TimeUtils.toEpochMillis(time);
+    }
+
+    public LocalDateTime getLastCommandReceiveTime() {
+        return TimeUtils.toLocalDateTime(lastCommandReceiveMillis);
+    }
+
+    public void setLastCommandReceiveTime(LocalDateTime time) {
+        this.lastCommandReceiveMillis = TimeUtils.toEpochMillis(time);
+    }
+
+    public LocalDateTime getLastConfigSendTime() {
+        return TimeUtils.toLocalDateTime(lastConfigSendMillis);
+    }
+
+    public void setLastConfigSendTime(LocalDateTime time) {
+        this.lastConfigSendMillis = TimeUtils.toEpochMillis(time);
+    }
+
+    public LocalDateTime getLastNewStateSendTime() {
+        return TimeUtils.toLocalDateTime(lastNewStateSendMillis);
+    }
+
+    public void setLastNewStateSendTime(LocalDateTime time) {
+        this.lastNewStateSendMillis = TimeUtils.toEpochMillis(time);
+    }
 }
@@ -0,0 +1,9 @@
+package com.hydrogarden.business.device.core.entity;
+
+/**
+ * Marks domain events raised on every keepalive or heartbeat of a device.
+ * They are not published one by one; they are counted per device and published as a periodic summary.
+ */
+public interface HighFrequencyDomainEvent {
+    DeviceId getDeviceId();
+}
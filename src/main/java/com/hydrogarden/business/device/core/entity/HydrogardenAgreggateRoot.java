@@ -2,7 +2,6 @@ package com.hydrogarden.business.device.core.entity;
 
 
 import lombok.extern.log4j.Log4j2;
-import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,7 +21,11 @@ public abstract class HydrogardenAgreggateRoot {
     }
 
     protected void registerDomainEvent(HydrogardenDomainEvent event) {
-        log.info("Registering domain event: {}", ReflectionToStringBuilder.toString(this));
+        if (event instanceof HighFrequencyDomainEvent) {
+            log.trace("Registering domain event type={} aggregate={}", event.getClass().getSimpleName(), getClass().getSimpleName());
+        } else {
+            log.debug("Registering domain event type={} aggregate={}", event.getClass().getSimpleName(), getClass().getSimpleName());
+        }
         domainEvents.add(event);
     }
 }
@@ -0,0 +1,26 @@
+package com.hydrogarden.business.device.core.event;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Counts of high-frequency events raised per device since {@code windowStart}.
+ */
+@Getter
+public class DeviceEventSummaryDE extends HydrogardenDomainEvent {
+    private final LocalDateTime windowStart;
+    /**
+     * Event type simple name to count, per device. Devices without events in the window are absent.
+     */
+    private final Map<DeviceId, Map<String, Long>> counts;
+
+    public DeviceEventSummaryDE(LocalDateTime timestamp, LocalDateTime windowStart, Map<DeviceId, Map<String, Long>> counts) {
+        super(timestamp);
+        this.windowStart = windowStart;
+        this.counts = counts;
+    }
+}
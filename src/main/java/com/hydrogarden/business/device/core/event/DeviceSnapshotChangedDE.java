@@ -0,0 +1,25 @@
+package com.hydrogarden.business.device.core.event;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after every committed change of a device, carrying its new state.
+ */
+@Getter
+public class DeviceSnapshotChangedDE extends HydrogardenDomainEvent {
+    private final DeviceSnapshot snapshot;
+
+    public DeviceSnapshotChangedDE(LocalDateTime timestamp, DeviceSnapshot snapshot) {
+        super(timestamp);
+        this.snapshot = snapshot;
+    }
+
+    public DeviceId getDeviceId() {
+        return snapshot.id();
+    }
+}
@@ -13,7 +13,7 @@ public class NewStateSentDE extends HydrogardenDomainEvent {
     private final DeviceId deviceId;
     private final List<CircuitState> oldState;
     private final List<CircuitState> newState;
-    protected NewStateSentDE(LocalDateTime timestamp, DeviceId deviceId, List<CircuitState> oldState, List<CircuitState> newState) {
+    public NewStateSentDE(LocalDateTime timestamp, DeviceId deviceId, List<CircuitState> oldState, List<CircuitState> newState) {
         super(timestamp);
         this.deviceId = deviceId;
         this.oldState = oldState;
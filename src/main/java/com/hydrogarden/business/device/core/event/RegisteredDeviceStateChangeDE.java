@@ -14,7 +14,7 @@ public class RegisteredDeviceStateChangeDE extends HydrogardenDomainEvent {
     private final List<CircuitState> oldState;
     private final List<CircuitState> newState;
 
-    protected RegisteredDeviceStateChangeDE(LocalDateTime timestamp, DeviceId deviceId, List<CircuitState> oldState, List<CircuitState> newState) {
+    public RegisteredDeviceStateChangeDE(LocalDateTime timestamp, DeviceId deviceId, List<CircuitState> oldState, List<CircuitState> newState) {
         super(timestamp);
         this.deviceId = deviceId;
         this.oldState = oldState;
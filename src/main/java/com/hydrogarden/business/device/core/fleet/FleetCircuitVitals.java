@@ -0,0 +1,7 @@
+package com.hydrogarden.business.device.core.fleet;
+
+public record FleetCircuitVitals(short id,
+                                 String name,
+                                 boolean state,
+                                 boolean desiredState) {
+}
@@ -0,0 +1,20 @@
+package com.hydrogarden.business.device.core.fleet;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Vitals of one device in a fleet page. Components of fields that were not requested are null and left out of the response.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FleetDeviceVitals(short id,
+                                String name,
+                                DeviceState state,
+                                DeviceState desiredState,
+                                LocalDateTime lastKeepAliveSendTime,
+                                LocalDateTime lastHeartbeatReceiveTime,
+                                List<FleetCircuitVitals> circuits) {
+}
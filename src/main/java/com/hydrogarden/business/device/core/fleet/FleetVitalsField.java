@@ -0,0 +1,19 @@
+package com.hydrogarden.business.device.core.fleet;
+
+/**
+ * Optional parts of {@link FleetDeviceVitals}; device id and name are always included.
+ */
+public enum FleetVitalsField {
+    /**
+     * Actual and desired device state.
+     */
+    STATE,
+    /**
+     * Last keepalive sent and last command received.
+     */
+    TIMING,
+    /**
+     * Circuit names and states.
+     */
+    CIRCUITS
+}
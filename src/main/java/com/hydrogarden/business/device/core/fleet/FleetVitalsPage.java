@@ -0,0 +1,12 @@
+package com.hydrogarden.business.device.core.fleet;
+
+import java.util.List;
+
+/**
+ * One keyset page of a user's devices, ordered by device id.
+ *
+ * @param nextAfterId value of {@code afterId} for the next page, null on the last page
+ */
+public record FleetVitalsPage(List<FleetDeviceVitals> devices,
+                              Short nextAfterId) {
+}
@@ -0,0 +1,20 @@
+package com.hydrogarden.business.device.core.port.out;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+
+/**
+ * Tells every application instance, including this one, that a device change was committed.
+ */
+public interface DeviceChangePort {
+
+    /**
+     * @param version aggregate version the change committed
+     */
+    void broadcastDeviceChanged(DeviceId deviceId, long version);
+
+    /**
+     * @param version aggregate version the acknowledgement committed
+     * @param states  circuit states the device acknowledged
+     */
+    void broadcastCircuitStatesAcknowledged(DeviceId deviceId, long version, long states);
+}
@@ -0,0 +1,13 @@
+package com.hydrogarden.business.device.core.port.out;
+
+import com.hydrogarden.business.device.core.commands.DeviceCommand;
+
+/**
+ * Records device traffic for connectivity history. Implementations must not block the caller.
+ */
+public interface DeviceCommandHistoryPort {
+
+    void recordInbound(DeviceCommand command);
+
+    void recordOutbound(DeviceCommand command);
+}
@@ -0,0 +1,28 @@
+package com.hydrogarden.business.device.core.port.out;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Append-only stream of device domain events, present only when the event store is enabled.
+ */
+public interface DeviceEventStorePort {
+
+    /**
+     * Appends the events of one change; must be called inside the transaction that applied it.
+     *
+     * @return id of the last appended event, empty if none of the events belongs to the stream
+     */
+    OptionalLong append(DeviceId deviceId, List<HydrogardenDomainEvent> events);
+
+    /**
+     * Offers the state after a committed change; stored only once enough events were appended since the last snapshot.
+     *
+     * @param lastEventId the id returned by {@link #append} in the transaction that produced the snapshot
+     */
+    void snapshotIfDue(DeviceSnapshot snapshot, long lastEventId);
+}
@@ -0,0 +1,10 @@
+package com.hydrogarden.business.device.core.snapshot;
+
+import com.hydrogarden.business.device.core.entity.CircuitId;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+
+/**
+ * Immutable view of a single circuit at the time its device snapshot was taken.
+ */
+public record CircuitSnapshot(CircuitId id, String name, short bitIndex, CircuitState state, CircuitState desiredState) {
+}
@@ -0,0 +1,50 @@
+package com.hydrogarden.business.device.core.snapshot;
+
+import com.hydrogarden.business.device.core.entity.CircuitStateMask;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable view of a device after a committed change.
+ *
+ * @param version  aggregate version the snapshot was taken at; a higher version always describes a later state
+ * @param name     device name; only current in a snapshot with circuits, as a snapshot without circuits may come from
+ *                 a device row served by an instance-local second-level cache that missed a rename elsewhere
+ * @param circuits circuit metadata and states, or {@code null} when the circuits were not loaded by the
+ *                 transaction that produced this snapshot
+ */
+public record DeviceSnapshot(DeviceId id,
+                             long version,
+                             String name,
+                             DeviceState state,
+                             DeviceState desiredState,
+                             LocalDateTime lastKeepAliveSendTime,
+                             LocalDateTime lastCommandReceiveTime,
+                             CircuitStateMask circuitStateMask,
+                             List<CircuitSnapshot> circuits) {
+
+    public boolean hasCircuits() {
+        return circuits != null;
+    }
+
+    /**
+     * Fills in circuit metadata and the name from an earlier snapshot, with states taken from this snapshot's mask.
+     */
+    public DeviceSnapshot withCircuitsOf(DeviceSnapshot previous) {
+        List<CircuitSnapshot> merged = new ArrayList<>(previous.circuits().size());
+        for (CircuitSnapshot circuit : previous.circuits()) {
+            merged.add(new CircuitSnapshot(
+                    circuit.id(),
+                    circuit.name(),
+                    circuit.bitIndex(),
+                    circuitStateMask.getState(circuit.bitIndex()),
+                    circuitStateMask.getDesiredState(circuit.bitIndex())
+            ));
+        }
+        return new DeviceSnapshot(id, version, previous.name(), state, desiredState, lastKeepAliveSendTime, lastCommandReceiveTime, circuitStateMask, List.copyOf(merged));
+    }
+}
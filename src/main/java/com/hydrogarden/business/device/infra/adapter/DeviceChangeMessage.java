@@ -0,0 +1,23 @@
+package com.hydrogarden.business.device.infra.adapter;
+
+/**
+ * Payload of the device changes fanout: {@code deviceId:version}, followed by {@code :states} when the change
+ * committed an acknowledgement of circuit states.
+ *
+ * @param acknowledgedStates circuit states acknowledged by the change, null for other changes
+ */
+record DeviceChangeMessage(short deviceId, long version, Long acknowledgedStates) {
+
+    static DeviceChangeMessage parse(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("Malformed device change: " + payload);
+        }
+        Long acknowledgedStates = parts.length == 3 ? Long.parseLong(parts[2]) : null;
+        return new DeviceChangeMessage(Short.parseShort(parts[0]), Long.parseLong(parts[1]), acknowledgedStates);
+    }
+
+    String toPayload() {
+        return acknowledgedStates == null ? deviceId + ":" + version : deviceId + ":" + version + ":" + acknowledgedStates;
+    }
+}
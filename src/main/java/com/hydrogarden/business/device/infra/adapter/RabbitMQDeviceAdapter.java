@@ -1,6 +1,7 @@
 package com.hydrogarden.business.device.infra.adapter;
 
 import com.hydrogarden.business.device.core.commands.DeviceCommand;
+import com.hydrogarden.business.device.core.port.out.DeviceCommandHistoryPort;
 import com.hydrogarden.business.device.core.port.out.DeviceOutputPort;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
@@ -18,10 +19,13 @@ import org.springframework.stereotype.Component;
 public class RabbitMQDeviceAdapter implements DeviceOutputPort {
     private final RabbitTemplate rabbitTemplate;
     private final Queue toDevice;
+    private final DeviceCommandHistoryPort deviceCommandHistoryPort;
 
-    public RabbitMQDeviceAdapter(RabbitTemplate rabbitTemplate, @Qualifier("toDevice") Queue toDevice, @Qualifier("toServer") Queue toServer) {
+    public RabbitMQDeviceAdapter(RabbitTemplate rabbitTemplate, @Qualifier("toDevice") Queue toDevice, @Qualifier("toServer") Queue toServer,
+                                 DeviceCommandHistoryPort deviceCommandHistoryPort) {
         this.rabbitTemplate = rabbitTemplate;
         this.toDevice = toDevice;
+        this.deviceCommandHistoryPort = deviceCommandHistoryPort;
     }
 
     @Override
@@ -35,6 +39,7 @@ public class RabbitMQDeviceAdapter implements DeviceOutputPort {
             return null;
         });
 
+        deviceCommandHistoryPort.recordOutbound(command);
         log.info("Sending device command: {}, {}", command.getCommandType().name(), command.toBytes());
     }
 
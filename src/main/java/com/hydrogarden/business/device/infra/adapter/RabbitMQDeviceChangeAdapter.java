@@ -0,0 +1,40 @@
+package com.hydrogarden.business.device.infra.adapter;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.port.out.DeviceChangePort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes committed device changes to the device changes fanout exchange, which every instance listens to with its own queue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RabbitMQDeviceChangeAdapter implements DeviceChangePort {
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange deviceChangesExchange;
+
+    @Override
+    public void broadcastDeviceChanged(DeviceId deviceId, long version) {
+        broadcast(new DeviceChangeMessage(deviceId.getId(), version, null));
+    }
+
+    @Override
+    public void broadcastCircuitStatesAcknowledged(DeviceId deviceId, long version, long states) {
+        broadcast(new DeviceChangeMessage(deviceId.getId(), version, states));
+    }
+
+    private void broadcast(DeviceChangeMessage message) {
+        try {
+            rabbitTemplate.convertAndSend(deviceChangesExchange.getName(), "", message.toPayload());
+        } catch (AmqpException e) {
+            // Other instances then see the change on the next conditional read or once the device changes again
+            log.warn("Failed to broadcast change of device {} at version {}", message.deviceId(), message.version(), e);
+        }
+    }
+}
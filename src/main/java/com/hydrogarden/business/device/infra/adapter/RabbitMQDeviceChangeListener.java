@@ -0,0 +1,30 @@
+package com.hydrogarden.business.device.infra.adapter;
+
+import com.hydrogarden.business.device.app.service.DeviceApplicationService;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RabbitMQDeviceChangeListener {
+
+    private final DeviceApplicationService deviceApplicationService;
+
+    @RabbitListener(queues = "#{deviceChanges.name}")
+    public void receiveDeviceChanged(String payload) {
+        try {
+            DeviceChangeMessage message = DeviceChangeMessage.parse(payload);
+            DeviceId deviceId = new DeviceId(message.deviceId());
+            deviceApplicationService.receiveDeviceChanged(deviceId, message.version());
+            if (message.acknowledgedStates() != null) {
+                deviceApplicationService.receiveCircuitStatesAcknowledged(deviceId, message.acknowledgedStates());
+            }
+        } catch (Exception e) {
+            log.error("Error while handling device change {} from amqp", payload, e);
+        }
+    }
+}
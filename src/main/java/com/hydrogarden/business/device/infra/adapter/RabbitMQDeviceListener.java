@@ -4,6 +4,7 @@ import com.hydrogarden.business.device.app.service.DeviceApplicationService;
 import com.hydrogarden.business.device.core.commands.DeviceCommand;
 import com.hydrogarden.business.device.core.commands.InboundDeviceCommand;
 import com.hydrogarden.business.device.core.commands.OutboundDeviceCommand;
+import com.hydrogarden.business.device.core.port.out.DeviceCommandHistoryPort;
 import com.hydrogarden.business.device.infra.factory.DeviceCommandFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Component;
 public class RabbitMQDeviceListener {
 
     private final DeviceApplicationService deviceApplicationService;
+    private final DeviceCommandHistoryPort deviceCommandHistoryPort;
 
 
     @RabbitListener(queues = "toServer")
@@ -28,6 +30,7 @@ public class RabbitMQDeviceListener {
             }
 
             log.info("Received message: {}", deviceCommand.getCommandType().name());
+            deviceCommandHistoryPort.recordInbound(deviceCommand);
             deviceApplicationService.handleDeviceCommand((InboundDeviceCommand) deviceCommand);
         } catch (Exception e) {
             log.error("Error while handling device command from amqp", e);
@@ -0,0 +1,97 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.TimeUtils;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.fleet.FleetCircuitVitals;
+import com.hydrogarden.business.device.core.fleet.FleetDeviceVitals;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsField;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads fleet vitals as a flat projection in one query, without loading {@code Device} aggregates.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceFleetQueryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Pages over the owner's devices by id through the {@code device_ownership} primary key; circuits, when requested,
+     * are joined to the page and folded into their devices.
+     *
+     * @param afterId only devices with a greater id are returned
+     */
+    public List<FleetDeviceVitals> findPage(String ownerId, short afterId, int limit, Set<FleetVitalsField> fields) {
+        boolean withCircuits = fields.contains(FleetVitalsField.CIRCUITS);
+        String sql = """
+                SELECT d.id, d.name, v.state, v.desired_state, v.last_keep_alive_send_ms, v.last_command_receive_ms,
+                       v.circuit_states, v.desired_circuit_states%s
+                FROM (SELECT o.device_id
+                      FROM device_ownership o
+                      WHERE o.owner_id = ?
+                        AND o.device_id > ?
+                      ORDER BY o.device_id
+                      LIMIT ?) page
+                         JOIN device d ON d.id = page.device_id
+                         JOIN device_vitals v ON v.id = d.id%s
+                ORDER BY d.id%s""".formatted(
+                withCircuits ? ", c.id AS circuit_id, c.name AS circuit_name, c.bit_index" : "",
+                withCircuits ? "\n         LEFT JOIN circuit c ON c.device_id = d.id" : "",
+                withCircuits ? ", c.bit_index" : "");
+
+        Map<Short, FleetDeviceVitals> devices = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            short id = rs.getShort("id");
+            FleetDeviceVitals device = devices.computeIfAbsent(id, key -> mapDevice(rs, key, fields));
+            if (withCircuits) {
+                rs.getShort("circuit_id");
+                if (!rs.wasNull()) {
+                    device.circuits().add(mapCircuit(rs));
+                }
+            }
+        }, ownerId, afterId, limit);
+
+        return List.copyOf(devices.values());
+    }
+
+    private static FleetDeviceVitals mapDevice(ResultSet rs, short id, Set<FleetVitalsField> fields) {
+        try {
+            boolean withState = fields.contains(FleetVitalsField.STATE);
+            boolean withTiming = fields.contains(FleetVitalsField.TIMING);
+            return new FleetDeviceVitals(
+                    id,
+                    rs.getString("name"),
+                    withState ? state(rs.getString("state")) : null,
+                    withState ? state(rs.getString("desired_state")) : null,
+                    withTiming ? TimeUtils.toLocalDateTime(rs.getLong("last_keep_alive_send_ms")) : null,
+                    withTiming ? TimeUtils.toLocalDateTime(rs.getLong("last_command_receive_ms")) : null,
+                    fields.contains(FleetVitalsField.CIRCUITS) ? new ArrayList<>() : null);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to map fleet vitals of device " + id, e);
+        }
+    }
+
+    private static FleetCircuitVitals mapCircuit(ResultSet rs) throws SQLException {
+        long bit = 1L << rs.getShort("bit_index");
+        return new FleetCircuitVitals(
+                rs.getShort("circuit_id"),
+                rs.getString("circuit_name"),
+                (rs.getLong("circuit_states") & bit) != 0,
+                (rs.getLong("desired_circuit_states") & bit) != 0);
+    }
+
+    private static DeviceState state(String name) {
+        return name == null ? null : DeviceState.valueOf(name);
+    }
+}
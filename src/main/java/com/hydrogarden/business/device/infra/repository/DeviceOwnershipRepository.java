@@ -0,0 +1,19 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceOwnership;
+import com.hydrogarden.business.device.core.entity.DeviceOwnershipId;
+import com.hydrogarden.common.UserId;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.util.List;
+
+public interface DeviceOwnershipRepository extends ListCrudRepository<DeviceOwnership, DeviceOwnershipId> {
+
+    /**
+     * IDs of all devices owned by a user, read from {@code device_ownership} alone.
+     */
+    @Query("select o.id.deviceId from DeviceOwnership o where o.id.ownerId = :ownerId")
+    List<DeviceId> findDeviceIdsByOwnerId(UserId ownerId);
+}
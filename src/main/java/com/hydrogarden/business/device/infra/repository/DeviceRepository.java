@@ -2,7 +2,39 @@ package com.hydrogarden.business.device.infra.repository;
 
 import com.hydrogarden.business.device.core.entity.Device;
 import com.hydrogarden.business.device.core.entity.DeviceId;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Each finder loads one fetch plan of {@link Device} in a single select; pick the one matching what the caller touches.
+ * The inbound path uses {@link #findById} instead: the device row comes from the second-level cache and only
+ * the vitals are selected.
+ */
 public interface DeviceRepository extends ListCrudRepository<Device, DeviceId> {
+
+    @EntityGraph(Device.WITH_VITALS)
+    Optional<Device> findWithVitalsById(DeviceId id);
+
+    /**
+     * Loads a chunk of devices for the routine in one select.
+     */
+    @EntityGraph(Device.WITH_VITALS)
+    List<Device> findWithVitalsByIdIn(Collection<DeviceId> ids);
+
+    @EntityGraph(Device.WITH_VITALS_AND_CIRCUITS)
+    Optional<Device> findWithVitalsAndCircuitsById(DeviceId id);
+
+    /**
+     * Aggregate version of the device, see {@link Device#getAggregateVersion()}, by primary key.
+     */
+    @Query("select v.version from DeviceVitals v where v.id = :id")
+    Optional<Long> findAggregateVersionById(DeviceId id);
+
+    @Query("select d.id from Device d")
+    List<DeviceId> findAllIds();
 }
@@ -0,0 +1,238 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hydrogarden.business.device.core.TimeUtils;
+import com.hydrogarden.business.device.core.entity.CircuitId;
+import com.hydrogarden.business.device.core.entity.CircuitStateMask;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.snapshot.CircuitSnapshot;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to the {@code device_vitals_view} read model. Every write only replaces a row of an older version,
+ * so out-of-order projections and a concurrent rebuild never move a row back in time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceVitalsViewRepository {
+
+    private record CircuitMetadata(short id, String name, short bitIndex) {
+    }
+
+    private static final TypeReference<List<CircuitMetadata>> CIRCUITS = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Single primary-key lookup.
+     */
+    public Optional<DeviceSnapshot> findById(DeviceId deviceId) {
+        return jdbcTemplate.query("""
+                                SELECT * FROM device_vitals_view WHERE device_id = ?""",
+                        (rs, rowNum) -> mapSnapshot(rs),
+                        deviceId.getId())
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Writes a snapshot that carries circuit metadata.
+     */
+    public void upsert(DeviceSnapshot snapshot, LocalDateTime projectedAt) {
+        if (updateVitals(snapshot, projectedAt, writeCircuits(snapshot.circuits()))) {
+            return;
+        }
+        jdbcTemplate.update("""
+                        INSERT IGNORE INTO device_vitals_view (device_id, version, name, state, desired_state,
+                                                               last_keep_alive_send_ms, last_command_receive_ms,
+                                                               circuit_count, circuit_states, desired_circuit_states,
+                                                               circuits, projected_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""",
+                snapshot.id().getId(),
+                snapshot.version(),
+                snapshot.name(),
+                name(snapshot.state()),
+                name(snapshot.desiredState()),
+                TimeUtils.toEpochMillis(snapshot.lastKeepAliveSendTime()),
+                TimeUtils.toEpochMillis(snapshot.lastCommandReceiveTime()),
+                snapshot.circuitStateMask().getCircuitCount(),
+                snapshot.circuitStateMask().getStates(),
+                snapshot.circuitStateMask().getDesiredStates(),
+                writeCircuits(snapshot.circuits()),
+                projectedAt);
+    }
+
+    /**
+     * Updates the row of a snapshot without circuit metadata; circuits and name of the row are kept,
+     * see {@link DeviceSnapshot#name()}.
+     *
+     * @return false if there is no older row to update
+     */
+    public boolean updateVitals(DeviceSnapshot snapshot, LocalDateTime projectedAt) {
+        return updateVitals(snapshot, projectedAt, null);
+    }
+
+    private boolean updateVitals(DeviceSnapshot snapshot, LocalDateTime projectedAt, String circuits) {
+        return jdbcTemplate.update("""
+                        UPDATE device_vitals_view
+                        SET version                 = ?,
+                            name                    = COALESCE(?, name),
+                            state                   = ?,
+                            desired_state           = ?,
+                            last_keep_alive_send_ms = ?,
+                            last_command_receive_ms = ?,
+                            circuit_count           = ?,
+                            circuit_states          = ?,
+                            desired_circuit_states  = ?,
+                            circuits                = COALESCE(?, circuits),
+                            projected_at            = ?
+                        WHERE device_id = ?
+                          AND version < ?""",
+                snapshot.version(),
+                circuits == null ? null : snapshot.name(),
+                name(snapshot.state()),
+                name(snapshot.desiredState()),
+                TimeUtils.toEpochMillis(snapshot.lastKeepAliveSendTime()),
+                TimeUtils.toEpochMillis(snapshot.lastCommandReceiveTime()),
+                snapshot.circuitStateMask().getCircuitCount(),
+                snapshot.circuitStateMask().getStates(),
+                snapshot.circuitStateMask().getDesiredStates(),
+                circuits,
+                projectedAt,
+                snapshot.id().getId(),
+                snapshot.version()) > 0;
+    }
+
+    /**
+     * Re-projects every device from the write tables and removes rows of deleted devices.
+     * Devices are projected in id ranges of {@code batchSize}, one statement each, so the write tables are never
+     * locked as a whole.
+     *
+     * @return number of devices in the read model
+     */
+    public int rebuild(LocalDateTime projectedAt, int batchSize) {
+        jdbcTemplate.update("""
+                DELETE FROM device_vitals_view
+                WHERE device_id NOT IN (SELECT id FROM device)""");
+
+        int afterId = Integer.MIN_VALUE;
+        while (true) {
+            List<Short> ids = jdbcTemplate.queryForList("""
+                            SELECT id FROM device WHERE id > ? ORDER BY id LIMIT ?""",
+                    Short.class, afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            rebuildRange(ids.getFirst(), ids.getLast(), projectedAt);
+            afterId = ids.getLast();
+        }
+
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM device_vitals_view", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void rebuildRange(short fromId, short toId, LocalDateTime projectedAt) {
+        jdbcTemplate.update("""
+                        INSERT INTO device_vitals_view (device_id, version, name, state, desired_state,
+                                                        last_keep_alive_send_ms, last_command_receive_ms,
+                                                        circuit_count, circuit_states, desired_circuit_states,
+                                                        circuits, projected_at)
+                        SELECT *
+                        FROM (SELECT d.id,
+                                     v.version,
+                                     d.name,
+                                     v.state,
+                                     v.desired_state,
+                                     v.last_keep_alive_send_ms,
+                                     v.last_command_receive_ms,
+                                     v.circuit_count,
+                                     v.circuit_states,
+                                     v.desired_circuit_states,
+                                     IF(COUNT(c.id) = 0, JSON_ARRAY(),
+                                        JSON_ARRAYAGG(JSON_OBJECT('id', c.id, 'name', c.name, 'bitIndex', c.bit_index))),
+                                     ?
+                              FROM device d
+                                       JOIN device_vitals v ON v.id = d.id
+                                       LEFT JOIN circuit c ON c.device_id = d.id
+                              WHERE d.id BETWEEN ? AND ?
+                              GROUP BY d.id, v.id) AS projection
+                        ON DUPLICATE KEY UPDATE name                    = IF(VALUES(version) >= device_vitals_view.version, VALUES(name), device_vitals_view.name),
+                                                state                   = IF(VALUES(version) >= device_vitals_view.version, VALUES(state), device_vitals_view.state),
+                                                desired_state           = IF(VALUES(version) >= device_vitals_view.version, VALUES(desired_state), device_vitals_view.desired_state),
+                                                last_keep_alive_send_ms = IF(VALUES(version) >= device_vitals_view.version, VALUES(last_keep_alive_send_ms), device_vitals_view.last_keep_alive_send_ms),
+                                                last_command_receive_ms = IF(VALUES(version) >= device_vitals_view.version, VALUES(last_command_receive_ms), device_vitals_view.last_command_receive_ms),
+                                                circuit_count           = IF(VALUES(version) >= device_vitals_view.version, VALUES(circuit_count), device_vitals_view.circuit_count),
+                                                circuit_states          = IF(VALUES(version) >= device_vitals_view.version, VALUES(circuit_states), device_vitals_view.circuit_states),
+                                                desired_circuit_states  = IF(VALUES(version) >= device_vitals_view.version, VALUES(desired_circuit_states), device_vitals_view.desired_circuit_states),
+                                                circuits                = IF(VALUES(version) >= device_vitals_view.version, VALUES(circuits), device_vitals_view.circuits),
+                                                projected_at            = IF(VALUES(version) >= device_vitals_view.version, VALUES(projected_at), device_vitals_view.projected_at),
+                                                version                 = GREATEST(VALUES(version), device_vitals_view.version)""",
+                projectedAt, fromId, toId);
+    }
+
+    private DeviceSnapshot mapSnapshot(ResultSet rs) throws SQLException {
+        DeviceId deviceId = new DeviceId(rs.getShort("device_id"));
+        CircuitStateMask mask = new CircuitStateMask(rs.getShort("circuit_count"), rs.getLong("circuit_states"), rs.getLong("desired_circuit_states"));
+        List<CircuitSnapshot> circuits = readCircuits(rs.getString("circuits")).stream()
+                .sorted(Comparator.comparingInt(CircuitMetadata::bitIndex))
+                .map(circuit -> new CircuitSnapshot(
+                        new CircuitId(deviceId, circuit.id()),
+                        circuit.name(),
+                        circuit.bitIndex(),
+                        mask.getState(circuit.bitIndex()),
+                        mask.getDesiredState(circuit.bitIndex())))
+                .toList();
+
+        return new DeviceSnapshot(
+                deviceId,
+                rs.getLong("version"),
+                rs.getString("name"),
+                state(rs.getString("state")),
+                state(rs.getString("desired_state")),
+                TimeUtils.toLocalDateTime(rs.getLong("last_keep_alive_send_ms")),
+                TimeUtils.toLocalDateTime(rs.getLong("last_command_receive_ms")),
+                mask,
+                circuits);
+    }
+
+    private String writeCircuits(List<CircuitSnapshot> circuits) {
+        try {
+            return mapper.writeValueAsString(circuits.stream()
+                    .map(circuit -> new CircuitMetadata(circuit.id().getId(), circuit.name(), circuit.bitIndex()))
+                    .toList());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize circuits", e);
+        }
+    }
+
+    private List<CircuitMetadata> readCircuits(String json) {
+        try {
+            return mapper.readValue(json, CIRCUITS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read circuits of the device vitals read model", e);
+        }
+    }
+
+    private static String name(DeviceState state) {
+        return state == null ? null : state.name();
+    }
+
+    private static DeviceState state(String name) {
+        return name == null ? null : DeviceState.valueOf(name);
+    }
+}
@@ -0,0 +1,41 @@
+package com.hydrogarden.business.device_history.app.controller;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device_history.app.service.DeviceHistoryApplicationService;
+import com.hydrogarden.business.device_history.core.ConnectivityHistory;
+import com.hydrogarden.business.device_history.core.DeviceEventStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("devices/{deviceId}/history")
+@RequiredArgsConstructor
+public class DeviceHistoryController {
+    private final DeviceHistoryApplicationService deviceHistoryApplicationService;
+
+    /**
+     * Per-bucket inbound, outbound and heartbeat counts of a device between two UTC timestamps.
+     */
+    @GetMapping("connectivity")
+    public ResponseEntity<ConnectivityHistory> getConnectivity(@PathVariable Integer deviceId,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                               @RequestParam(defaultValue = "300") long bucketSeconds) {
+        ConnectivityHistory history = deviceHistoryApplicationService.getConnectivity(new DeviceId((short) deviceId.intValue()), from, to, bucketSeconds);
+        return ResponseEntity.ok(history);
+    }
+
+    /**
+     * Latest snapshot of a device followed by the events recorded after it.
+     */
+    @GetMapping("events")
+    public ResponseEntity<DeviceEventStream> getEventStream(@PathVariable Integer deviceId,
+                                                            @RequestParam(defaultValue = "100") int limit) {
+        DeviceEventStream stream = deviceHistoryApplicationService.getEventStream(new DeviceId((short) deviceId.intValue()), limit);
+        return ResponseEntity.ok(stream);
+    }
+}
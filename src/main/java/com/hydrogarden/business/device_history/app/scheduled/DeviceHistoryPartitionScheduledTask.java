@@ -0,0 +1,35 @@
+package com.hydrogarden.business.device_history.app.scheduled;
+
+import com.hydrogarden.business.device_history.app.service.DeviceHistoryApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hydrogarden.device-history.partition-maintenance.enabled", matchIfMissing = true)
+public class DeviceHistoryPartitionScheduledTask {
+    private final DeviceHistoryApplicationService deviceHistoryApplicationService;
+
+    /**
+     * A failure must not abort startup: premade partitions cover the next days and the cron run retries.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainPartitionsOnStartup() {
+        try {
+            deviceHistoryApplicationService.maintainPartitions();
+        } catch (RuntimeException e) {
+            log.error("Failed to maintain device command history partitions on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${hydrogarden.device-history.partition-maintenance.cron:0 5 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        deviceHistoryApplicationService.maintainPartitions();
+    }
+}
@@ -0,0 +1,32 @@
+package com.hydrogarden.business.device_history.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device_history.core.ConnectivityHistory;
+import com.hydrogarden.business.device_history.core.DeviceEventStream;
+
+import java.time.LocalDateTime;
+
+public interface DeviceHistoryApplicationService {
+
+    /**
+     * Downsampled traffic of a device.
+     *
+     * @param deviceId      device ID
+     * @param from          UTC start, inclusive
+     * @param to            UTC end, exclusive
+     * @param bucketSeconds requested bucket width; widened if the range would produce too many buckets
+     */
+    ConnectivityHistory getConnectivity(DeviceId deviceId, LocalDateTime from, LocalDateTime to, long bucketSeconds);
+
+    /**
+     * Latest stored snapshot of a device and the events recorded after it. Empty unless the event store is enabled.
+     *
+     * @param limit maximum number of events; capped
+     */
+    DeviceEventStream getEventStream(DeviceId deviceId, int limit);
+
+    /**
+     * Creates daily partitions ahead of time and drops partitions past retention.
+     */
+    void maintainPartitions();
+}
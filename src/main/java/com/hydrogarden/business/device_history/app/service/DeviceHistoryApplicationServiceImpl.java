@@ -0,0 +1,126 @@
+package com.hydrogarden.business.device_history.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device_history.core.ConnectivityHistory;
+import com.hydrogarden.business.device_history.core.DeviceEventStream;
+import com.hydrogarden.business.device_history.core.DeviceStreamSnapshot;
+import com.hydrogarden.business.device_history.infra.repository.DeviceCommandHistoryRepository;
+import com.hydrogarden.business.device_history.infra.repository.DeviceEventStoreRepository;
+import com.hydrogarden.common.AuthorizedForOwnedDevice;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+public class DeviceHistoryApplicationServiceImpl implements DeviceHistoryApplicationService {
+    private static final long MAX_BUCKETS = 1_000;
+    private static final int MAX_STREAM_EVENTS = 1_000;
+
+    private final DeviceCommandHistoryRepository deviceCommandHistoryRepository;
+    private final DeviceEventStoreRepository deviceEventStoreRepository;
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final int retentionDays;
+    private final int premadeDays;
+
+    public DeviceHistoryApplicationServiceImpl(DeviceCommandHistoryRepository deviceCommandHistoryRepository,
+                                               DeviceEventStoreRepository deviceEventStoreRepository,
+                                               HydrogardenTimeProvider hydrogardenTimeProvider,
+                                               @Value("${hydrogarden.device-history.retention-days:30}") int retentionDays,
+                                               @Value("${hydrogarden.device-history.premade-days:3}") int premadeDays) {
+        this.deviceCommandHistoryRepository = deviceCommandHistoryRepository;
+        this.deviceEventStoreRepository = deviceEventStoreRepository;
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.retentionDays = retentionDays;
+        this.premadeDays = premadeDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AuthorizedForOwnedDevice
+    public ConnectivityHistory getConnectivity(DeviceId deviceId, LocalDateTime from, LocalDateTime to, long bucketSeconds) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("History range start must be before its end");
+        }
+        if (bucketSeconds <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+
+        long rangeSeconds = Duration.between(from, to).toSeconds();
+        long effectiveBucketSeconds = Math.max(bucketSeconds, Math.ceilDiv(rangeSeconds, MAX_BUCKETS));
+
+        return new ConnectivityHistory(
+                deviceId.getId(),
+                from,
+                to,
+                effectiveBucketSeconds,
+                deviceCommandHistoryRepository.findConnectivity(deviceId.getId(), from, to, effectiveBucketSeconds)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @AuthorizedForOwnedDevice
+    public DeviceEventStream getEventStream(DeviceId deviceId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        DeviceStreamSnapshot snapshot = deviceEventStoreRepository.findSnapshot(deviceId.getId()).orElse(null);
+        long afterId = snapshot == null ? 0 : snapshot.lastEventId();
+        return new DeviceEventStream(
+                deviceId.getId(),
+                snapshot,
+                deviceEventStoreRepository.findEvents(deviceId.getId(), afterId, Math.min(limit, MAX_STREAM_EVENTS))
+        );
+    }
+
+    /**
+     * Every instance runs this on startup and by cron. A named lock lets one of them do the work at a time; the others
+     * skip it, as the partitions are read again under the lock and the work is done already. The transaction only
+     * keeps the lock and the DDL on one connection: each DDL statement commits implicitly.
+     */
+    @Override
+    @Transactional
+    public void maintainPartitions() {
+        if (!deviceCommandHistoryRepository.tryLockPartitions()) {
+            log.info("Device command history partitions are being maintained by another instance");
+            return;
+        }
+        try {
+            maintainPartitionsLocked();
+        } finally {
+            deviceCommandHistoryRepository.unlockPartitions();
+        }
+    }
+
+    private void maintainPartitionsLocked() {
+        LocalDate today = hydrogardenTimeProvider.getCurrentTime().toLocalDate();
+        List<LocalDate> existing = deviceCommandHistoryRepository.findDailyPartitions();
+
+        LocalDate firstMissing = existing.isEmpty() ? today : existing.getLast().plusDays(1);
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = firstMissing; !day.isAfter(today.plusDays(premadeDays)); day = day.plusDays(1)) {
+            missing.add(day);
+        }
+        if (!missing.isEmpty()) {
+            log.info("Adding device command history partitions {} - {}", missing.getFirst(), missing.getLast());
+            deviceCommandHistoryRepository.addDailyPartitions(missing);
+        }
+
+        LocalDate oldestRetained = today.minusDays(retentionDays);
+        List<LocalDate> expired = existing.stream().filter(day -> day.isBefore(oldestRetained)).toList();
+        if (!expired.isEmpty()) {
+            log.info("Dropping device command history partitions {} - {}", expired.getFirst(), expired.getLast());
+            deviceCommandHistoryRepository.dropDailyPartitions(expired);
+        }
+    }
+}
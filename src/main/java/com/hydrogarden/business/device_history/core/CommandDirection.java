@@ -0,0 +1,6 @@
+package com.hydrogarden.business.device_history.core;
+
+public enum CommandDirection {
+    INBOUND,
+    OUTBOUND
+}
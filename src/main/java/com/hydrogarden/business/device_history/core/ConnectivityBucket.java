@@ -0,0 +1,14 @@
+package com.hydrogarden.business.device_history.core;
+
+import java.time.LocalDateTime;
+
+/**
+ * Traffic of one device within one time bucket. A bucket without inbound commands means the device was silent.
+ *
+ * @param start UTC start of the bucket, inclusive
+ */
+public record ConnectivityBucket(LocalDateTime start,
+                                 long inboundCount,
+                                 long outboundCount,
+                                 long heartbeatCount) {
+}
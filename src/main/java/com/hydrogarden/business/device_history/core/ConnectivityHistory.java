@@ -0,0 +1,16 @@
+package com.hydrogarden.business.device_history.core;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Downsampled connectivity of a device. Only buckets with traffic are listed.
+ *
+ * @param bucketSeconds effective bucket width, may be wider than requested to bound the number of buckets
+ */
+public record ConnectivityHistory(short deviceId,
+                                  LocalDateTime from,
+                                  LocalDateTime to,
+                                  long bucketSeconds,
+                                  List<ConnectivityBucket> buckets) {
+}
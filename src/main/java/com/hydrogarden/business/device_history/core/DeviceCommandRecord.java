@@ -0,0 +1,16 @@
+package com.hydrogarden.business.device_history.core;
+
+import java.time.LocalDateTime;
+
+/**
+ * One device command as it crossed the broker boundary.
+ *
+ * @param occurredAt UTC time the command was received or sent
+ * @param payload    command payload without the frame header, may be empty
+ */
+public record DeviceCommandRecord(short deviceId,
+                                  LocalDateTime occurredAt,
+                                  CommandDirection direction,
+                                  String commandType,
+                                  byte[] payload) {
+}
@@ -0,0 +1,67 @@
+package com.hydrogarden.business.device_history.core;
+
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.DeviceConfig;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One entry of a device event stream.
+ *
+ * @param id      position in the stream, null until stored
+ * @param payload {@code key=value} pairs separated by {@code ;}, null for events without data.
+ *                Circuit states are encoded as one {@code 0}/{@code 1} digit per circuit, ordered by bit index
+ */
+public record DeviceEventRecord(Long id,
+                                short deviceId,
+                                LocalDateTime occurredAt,
+                                String eventType,
+                                String payload) {
+
+    /**
+     * @return the stream entry of a device event, empty for events that are not part of the stream
+     */
+    public static Optional<DeviceEventRecord> of(HydrogardenDomainEvent event) {
+        return Optional.ofNullable(switch (event) {
+            case RegisteredDeviceStartDE e -> record(e, e.getDeviceId(), null);
+            case RegisteredDeviceShutdownDE e -> record(e, e.getDeviceId(), null);
+            case RegisteredDeviceConfigChangeDE e -> record(e, e.getDeviceId(), configs(e.getOldConfig(), e.getNewConfig()));
+            case ConfigSentDE e -> record(e, e.getDeviceId(), configs(e.getOldConfig(), e.getNewConfig()));
+            case RegisteredDeviceStateChangeDE e -> record(e, e.getDeviceId(), states(e.getOldState(), e.getNewState()));
+            case NewStateSentDE e -> record(e, e.getDeviceId(), states(e.getOldState(), e.getNewState()));
+            default -> null;
+        });
+    }
+
+    private static DeviceEventRecord record(HydrogardenDomainEvent event, DeviceId deviceId, String payload) {
+        return new DeviceEventRecord(null, deviceId.getId(), event.getTimestamp(), event.getClass().getSimpleName(), payload);
+    }
+
+    private static String configs(DeviceConfig oldConfig, DeviceConfig newConfig) {
+        return "old=" + encode(oldConfig) + ";new=" + encode(newConfig);
+    }
+
+    private static String states(List<CircuitState> oldState, List<CircuitState> newState) {
+        return "old=" + encode(oldState) + ";new=" + encode(newState);
+    }
+
+    private static String encode(DeviceConfig config) {
+        if (config == null || config.getStandbyTimeout() == null) {
+            return "";
+        }
+        return config.getStandbyTimeout() + "/" + config.getHeartbeatInterval();
+    }
+
+    private static String encode(List<CircuitState> states) {
+        StringBuilder encoded = new StringBuilder(states.size());
+        for (CircuitState state : states) {
+            encoded.append(Boolean.TRUE.equals(state.getValue()) ? '1' : '0');
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.hydrogarden.business.device_history.core;
+
+import java.util.List;
+
+/**
+ * Latest snapshot of a device followed by the events recorded after it.
+ *
+ * @param snapshot null if no snapshot was taken yet; events then start at the beginning of the stream
+ * @param events   ordered by id; truncated to the requested limit
+ */
+public record DeviceEventStream(short deviceId,
+                                DeviceStreamSnapshot snapshot,
+                                List<DeviceEventRecord> events) {
+}
@@ -0,0 +1,16 @@
+package com.hydrogarden.business.device_history.core;
+
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored state of a device that bounds how much of its event stream has to be read.
+ *
+ * @param lastEventId id of the last stream event the snapshot already reflects
+ * @param snapshot    device state, without circuit metadata
+ */
+public record DeviceStreamSnapshot(long lastEventId,
+                                   LocalDateTime takenAt,
+                                   DeviceSnapshot snapshot) {
+}
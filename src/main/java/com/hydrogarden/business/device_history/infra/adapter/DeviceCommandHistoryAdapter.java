@@ -0,0 +1,61 @@
+package com.hydrogarden.business.device_history.infra.adapter;
+
+import com.hydrogarden.business.device.core.commands.DeviceCommand;
+import com.hydrogarden.business.device.core.port.out.DeviceCommandHistoryPort;
+import com.hydrogarden.business.device_history.core.CommandDirection;
+import com.hydrogarden.business.device_history.core.DeviceCommandRecord;
+import com.hydrogarden.business.device_history.infra.repository.DeviceCommandHistoryRepository;
+import com.hydrogarden.common.AsyncBatchWriter;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Queues device traffic for {@link DeviceCommandHistoryRepository}; records are dropped rather than slowing the broker path.
+ */
+@Component
+public class DeviceCommandHistoryAdapter implements DeviceCommandHistoryPort {
+
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final AsyncBatchWriter<DeviceCommandRecord> writer;
+
+    public DeviceCommandHistoryAdapter(DeviceCommandHistoryRepository deviceCommandHistoryRepository,
+                                       HydrogardenTimeProvider hydrogardenTimeProvider,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${hydrogarden.device-history.writer.capacity:10000}") int capacity,
+                                       @Value("${hydrogarden.device-history.writer.batch-size:500}") int batchSize,
+                                       @Value("${hydrogarden.device-history.writer.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.writer = new AsyncBatchWriter<>("device-command-history", capacity, batchSize,
+                Duration.ofMillis(flushIntervalMs), deviceCommandHistoryRepository::insertAll, meterRegistry);
+    }
+
+    @Override
+    public void recordInbound(DeviceCommand command) {
+        record(command, CommandDirection.INBOUND);
+    }
+
+    @Override
+    public void recordOutbound(DeviceCommand command) {
+        record(command, CommandDirection.OUTBOUND);
+    }
+
+    private void record(DeviceCommand command, CommandDirection direction) {
+        writer.offer(new DeviceCommandRecord(
+                command.getDeviceId().getId(),
+                hydrogardenTimeProvider.getCurrentTime(),
+                direction,
+                command.getCommandType().name(),
+                command.getPayload()
+        ));
+    }
+
+    @PreDestroy
+    public void close() {
+        writer.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hydrogarden.business.device_history.infra.adapter;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.port.out.DeviceEventStorePort;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device_history.core.DeviceEventRecord;
+import com.hydrogarden.business.device_history.infra.repository.DeviceEventStoreRepository;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends device events to {@link DeviceEventStoreRepository} in the writing transaction, one batched insert per change.
+ * Snapshots are taken every {@code snapshot-every} events per device; the counters are kept in memory,
+ * so after a restart the first snapshot of a device may come late, which only lengthens reads.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hydrogarden.device.event-store.enabled")
+public class DeviceEventStoreAdapter implements DeviceEventStorePort {
+
+    private final DeviceEventStoreRepository deviceEventStoreRepository;
+    private final HydrogardenTimeProvider hydrogardenTimeProvider;
+    private final int snapshotEvery;
+    private final Map<DeviceId, AtomicInteger> eventsSinceSnapshot = new ConcurrentHashMap<>();
+
+    public DeviceEventStoreAdapter(DeviceEventStoreRepository deviceEventStoreRepository,
+                                   HydrogardenTimeProvider hydrogardenTimeProvider,
+                                   @Value("${hydrogarden.device.event-store.snapshot-every:100}") int snapshotEvery) {
+        this.deviceEventStoreRepository = deviceEventStoreRepository;
+        this.hydrogardenTimeProvider = hydrogardenTimeProvider;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @Override
+    public OptionalLong append(DeviceId deviceId, List<HydrogardenDomainEvent> events) {
+        List<DeviceEventRecord> records = events.stream()
+                .map(DeviceEventRecord::of)
+                .flatMap(Optional::stream)
+                .toList();
+        if (records.isEmpty()) {
+            return OptionalLong.empty();
+        }
+
+        long lastEventId = deviceEventStoreRepository.appendAll(records);
+        eventsSinceSnapshot.computeIfAbsent(deviceId, id -> new AtomicInteger()).addAndGet(records.size());
+        return OptionalLong.of(lastEventId);
+    }
+
+    @Override
+    public void snapshotIfDue(DeviceSnapshot snapshot, long lastEventId) {
+        AtomicInteger counter = eventsSinceSnapshot.get(snapshot.id());
+        // Only the writer that resets the counter takes the snapshot
+        if (counter == null || counter.getAndUpdate(count -> count >= snapshotEvery ? 0 : count) < snapshotEvery) {
+            return;
+        }
+
+        try {
+            deviceEventStoreRepository.saveSnapshot(snapshot, lastEventId, hydrogardenTimeProvider.getCurrentTime());
+        } catch (RuntimeException e) {
+            // A missing snapshot only makes the next read replay more events
+            log.warn("Failed to snapshot device {}", snapshot.id().getId(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.hydrogarden.business.device_history.infra.repository;
+
+import com.hydrogarden.business.device_history.core.CommandDirection;
+import com.hydrogarden.business.device_history.core.ConnectivityBucket;
+import com.hydrogarden.business.device_history.core.DeviceCommandRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Plain JDBC access to {@code device_command_history}; the table is append-only and never loaded as entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceCommandHistoryRepository {
+    public static final String FUTURE_PARTITION = "p_future";
+    private static final String DAILY_PARTITION_PREFIX = "p";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String PARTITION_LOCK = "hydrogarden.device_command_history.partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts records as one JDBC batch; with {@code rewriteBatchedStatements} this is a single multi-row insert.
+     */
+    public void insertAll(List<DeviceCommandRecord> records) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO device_command_history (occurred_at, device_id, direction, command_type, payload)
+                        VALUES (?, ?, ?, ?, ?)""",
+                records,
+                records.size(),
+                (ps, record) -> {
+                    ps.setObject(1, record.occurredAt());
+                    ps.setShort(2, record.deviceId());
+                    ps.setByte(3, (byte) record.direction().ordinal());
+                    ps.setString(4, record.commandType());
+                    ps.setBytes(5, record.payload());
+                });
+    }
+
+    /**
+     * Counts traffic per bucket. Reads only the partitions of the range through the (device_id, occurred_at) index.
+     */
+    public List<ConnectivityBucket> findConnectivity(short deviceId, LocalDateTime from, LocalDateTime to, long bucketSeconds) {
+        return jdbcTemplate.query("""
+                        SELECT TIMESTAMPDIFF(SECOND, ?, occurred_at) DIV ? AS bucket,
+                               SUM(direction = ?)                           AS inbound_count,
+                               SUM(direction = ?)                           AS outbound_count,
+                               SUM(command_type = 'HEARTBEAT')              AS heartbeat_count
+                        FROM device_command_history
+                        WHERE device_id = ?
+                          AND occurred_at >= ?
+                          AND occurred_at < ?
+                        GROUP BY bucket
+                        ORDER BY bucket""",
+                (rs, rowNum) -> new ConnectivityBucket(
+                        from.plusSeconds(rs.getLong("bucket") * bucketSeconds),
+                        rs.getLong("inbound_count"),
+                        rs.getLong("outbound_count"),
+                        rs.getLong("heartbeat_count")),
+                from, bucketSeconds,
+                CommandDirection.INBOUND.ordinal(), CommandDirection.OUTBOUND.ordinal(),
+                deviceId, from, to);
+    }
+
+    /**
+     * @return days of the existing daily partitions, ascending
+     */
+    public List<LocalDate> findDailyPartitions() {
+        return jdbcTemplate.queryForList("""
+                        SELECT PARTITION_NAME
+                        FROM information_schema.PARTITIONS
+                        WHERE TABLE_SCHEMA = DATABASE()
+                          AND TABLE_NAME = 'device_command_history'
+                          AND PARTITION_NAME <> ?
+                        ORDER BY PARTITION_ORDINAL_POSITION""",
+                        String.class, FUTURE_PARTITION)
+                .stream()
+                .map(name -> LocalDate.parse(name.substring(DAILY_PARTITION_PREFIX.length()), PARTITION_DAY))
+                .toList();
+    }
+
+    /**
+     * Splits daily partitions off {@value #FUTURE_PARTITION}. Days must be ascending and after the last daily partition.
+     */
+    public void addDailyPartitions(List<LocalDate> days) {
+        String partitions = days.stream()
+                .map(day -> "PARTITION %s VALUES LESS THAN ('%s')".formatted(partitionName(day), day.plusDays(1)))
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE device_command_history REORGANIZE PARTITION %s INTO (%s, PARTITION %s VALUES LESS THAN (MAXVALUE))"
+                .formatted(FUTURE_PARTITION, partitions, FUTURE_PARTITION));
+    }
+
+    /**
+     * Drops whole days of history; a metadata operation, independent of the number of rows.
+     */
+    public void dropDailyPartitions(List<LocalDate> days) {
+        String partitions = days.stream().map(DeviceCommandHistoryRepository::partitionName).collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE device_command_history DROP PARTITION " + partitions);
+    }
+
+    /**
+     * Takes the named lock that serializes partition maintenance across instances, without waiting for it.
+     * The lock belongs to the connection, so the caller must hold one connection until {@link #unlockPartitions}, e.g. by
+     * running in a transaction.
+     *
+     * @return false if another session holds the lock
+     */
+    public boolean tryLockPartitions() {
+        Integer acquired = jdbcTemplate.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, PARTITION_LOCK);
+        return acquired != null && acquired == 1;
+    }
+
+    public void unlockPartitions() {
+        jdbcTemplate.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, PARTITION_LOCK);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return DAILY_PARTITION_PREFIX + day.format(PARTITION_DAY);
+    }
+}
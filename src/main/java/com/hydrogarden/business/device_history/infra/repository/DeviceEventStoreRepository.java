@@ -0,0 +1,151 @@
+package com.hydrogarden.business.device_history.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.CircuitStateMask;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device_history.core.DeviceEventRecord;
+import com.hydrogarden.business.device_history.core.DeviceStreamSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to {@code device_event} and {@code device_snapshot}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceEventStoreRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Appends events as one JDBC batch; with {@code rewriteBatchedStatements} this is a single multi-row insert.
+     *
+     * @return id of the last appended event
+     */
+    public long appendAll(List<DeviceEventRecord> events) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement("""
+                        INSERT INTO device_event (device_id, occurred_at, event_type, payload)
+                        VALUES (?, ?, ?, ?)""", Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        DeviceEventRecord event = events.get(i);
+                        ps.setShort(1, event.deviceId());
+                        ps.setObject(2, event.occurredAt());
+                        ps.setString(3, event.eventType());
+                        ps.setString(4, event.payload());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return events.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .flatMap(keys -> keys.values().stream())
+                .mapToLong(key -> ((Number) key).longValue())
+                .max()
+                .orElseThrow();
+    }
+
+    /**
+     * Stores the snapshot as covering the events of the device up to {@code lastEventId}, which must be the last
+     * event appended by the transaction that produced the snapshot.
+     * An existing snapshot is only replaced by one of a higher version.
+     */
+    public void saveSnapshot(DeviceSnapshot snapshot, long lastEventId, LocalDateTime takenAt) {
+        CircuitStateMask mask = snapshot.circuitStateMask();
+        jdbcTemplate.update("""
+                        INSERT INTO device_snapshot (device_id, last_event_id, version, taken_at, name, state, desired_state,
+                                                     last_keep_alive_send_time, last_command_receive_time,
+                                                     circuit_count, circuit_states, desired_circuit_states)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        ON DUPLICATE KEY UPDATE last_event_id             = IF(VALUES(version) > version, VALUES(last_event_id), last_event_id),
+                                                taken_at                  = IF(VALUES(version) > version, VALUES(taken_at), taken_at),
+                                                name                      = IF(VALUES(version) > version, VALUES(name), name),
+                                                state                     = IF(VALUES(version) > version, VALUES(state), state),
+                                                desired_state             = IF(VALUES(version) > version, VALUES(desired_state), desired_state),
+                                                last_keep_alive_send_time = IF(VALUES(version) > version, VALUES(last_keep_alive_send_time), last_keep_alive_send_time),
+                                                last_command_receive_time = IF(VALUES(version) > version, VALUES(last_command_receive_time), last_command_receive_time),
+                                                circuit_count             = IF(VALUES(version) > version, VALUES(circuit_count), circuit_count),
+                                                circuit_states            = IF(VALUES(version) > version, VALUES(circuit_states), circuit_states),
+                                                desired_circuit_states    = IF(VALUES(version) > version, VALUES(desired_circuit_states), desired_circuit_states),
+                                                version                   = GREATEST(VALUES(version), version)""",
+                snapshot.id().getId(),
+                lastEventId,
+                snapshot.version(),
+                takenAt,
+                snapshot.name(),
+                name(snapshot.state()),
+                name(snapshot.desiredState()),
+                snapshot.lastKeepAliveSendTime(),
+                snapshot.lastCommandReceiveTime(),
+                mask.getCircuitCount(),
+                mask.getStates(),
+                mask.getDesiredStates());
+    }
+
+    public Optional<DeviceStreamSnapshot> findSnapshot(short deviceId) {
+        return jdbcTemplate.query("""
+                                SELECT * FROM device_snapshot WHERE device_id = ?""",
+                        (rs, rowNum) -> new DeviceStreamSnapshot(
+                                rs.getLong("last_event_id"),
+                                rs.getObject("taken_at", LocalDateTime.class),
+                                new DeviceSnapshot(
+                                        new DeviceId(rs.getShort("device_id")),
+                                        rs.getLong("version"),
+                                        rs.getString("name"),
+                                        state(rs.getString("state")),
+                                        state(rs.getString("desired_state")),
+                                        rs.getObject("last_keep_alive_send_time", LocalDateTime.class),
+                                        rs.getObject("last_command_receive_time", LocalDateTime.class),
+                                        new CircuitStateMask(rs.getShort("circuit_count"), rs.getLong("circuit_states"), rs.getLong("desired_circuit_states")),
+                                        null)),
+                        deviceId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * @param afterId only events with a greater id are returned
+     */
+    public List<DeviceEventRecord> findEvents(short deviceId, long afterId, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, device_id, occurred_at, event_type, payload
+                        FROM device_event
+                        WHERE device_id = ?
+                          AND id > ?
+                        ORDER BY id
+                        LIMIT ?""",
+                (rs, rowNum) -> new DeviceEventRecord(
+                        rs.getLong("id"),
+                        rs.getShort("device_id"),
+                        rs.getObject("occurred_at", LocalDateTime.class),
+                        rs.getString("event_type"),
+                        rs.getString("payload")),
+                deviceId, afterId, limit);
+    }
+
+    private static String name(DeviceState state) {
+        return state == null ? null : state.name();
+    }
+
+    private static DeviceState state(String name) {
+        return name == null ? null : DeviceState.valueOf(name);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hydrogarden.business.ownership.app.controller;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.ownership.app.service.OwnershipApplicationService;
+import com.hydrogarden.common.UserId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator tooling for device ownership. Not exposed over HTTP unless listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "deviceownership")
+@RequiredArgsConstructor
+public class DeviceOwnershipEndpoint {
+
+    private final OwnershipApplicationService ownershipApplicationService;
+
+    @WriteOperation
+    public void grant(String ownerId, short deviceId) {
+        ownershipApplicationService.grantOwnership(new UserId(ownerId), new DeviceId(deviceId));
+    }
+
+    @DeleteOperation
+    public void revoke(String ownerId, short deviceId) {
+        ownershipApplicationService.revokeOwnership(new UserId(ownerId), new DeviceId(deviceId));
+    }
+}
@@ -1,4 +1,47 @@
 package com.hydrogarden.business.ownership.app.service;
 
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.common.UserId;
+
+import java.util.Set;
+
 public interface OwnershipApplicationService {
+
+    /**
+     * @param ownerId user ID
+     * @return IDs of all devices owned by the user, served from the in-memory ownership index
+     */
+    Set<DeviceId> getOwnedDeviceIds(UserId ownerId);
+
+    /**
+     * Hash lookup in the ownership index; backs {@link com.hydrogarden.common.AuthorizedForOwnedDevice}.
+     *
+     * @param ownerId  user ID, may be null
+     * @param deviceId device ID, may be null
+     * @return whether the user owns the device
+     */
+    boolean isOwner(UserId ownerId, DeviceId deviceId);
+
+    /**
+     * Make a user an owner of a device. The user's index entry is invalidated on every instance once the change commits.
+     *
+     * @param ownerId  user ID
+     * @param deviceId device ID
+     */
+    void grantOwnership(UserId ownerId, DeviceId deviceId);
+
+    /**
+     * Remove a user's ownership of a device. The user's index entry is invalidated on every instance once the change commits.
+     *
+     * @param ownerId  user ID
+     * @param deviceId device ID
+     */
+    void revokeOwnership(UserId ownerId, DeviceId deviceId);
+
+    /**
+     * Drops the user's index entry on this instance; the next lookup reloads it.
+     *
+     * @param ownerId user ID
+     */
+    void invalidate(UserId ownerId);
 }
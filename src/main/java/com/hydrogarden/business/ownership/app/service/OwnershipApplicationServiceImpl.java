@@ -1,13 +1,89 @@
 package com.hydrogarden.business.ownership.app.service;
 
-
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceOwnership;
+import com.hydrogarden.business.device.core.entity.DeviceOwnershipId;
+import com.hydrogarden.business.device.infra.repository.DeviceOwnershipRepository;
+import com.hydrogarden.business.ownership.core.port.out.OwnershipChangePort;
+import com.hydrogarden.common.ServiceUtils;
+import com.hydrogarden.common.UserId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
 
+/**
+ * Keeps an in-memory user → devices index loaded from {@code device_ownership}, one entry per user.
+ * <p>
+ * Changes made through this service invalidate the owner's entry after commit on every instance, through
+ * {@link OwnershipChangePort}. {@code index-ttl-ms} bounds how long a change stays unseen when that broadcast is lost
+ * or the change was made outside the application.
+ */
 @Service
-@RequiredArgsConstructor
-public class OwnershipApplicationServiceImpl {
+public class OwnershipApplicationServiceImpl implements OwnershipApplicationService {
+
+    private final DeviceOwnershipRepository deviceOwnershipRepository;
+    private final OwnershipChangePort ownershipChangePort;
+    private final LoadingCache<UserId, Set<DeviceId>> ownedDevices;
+
+    public OwnershipApplicationServiceImpl(DeviceOwnershipRepository deviceOwnershipRepository,
+                                           OwnershipChangePort ownershipChangePort,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${hydrogarden.ownership.index-max-users:100000}") long maxUsers,
+                                           @Value("${hydrogarden.ownership.index-ttl-ms:60000}") long ttlMs) {
+        this.deviceOwnershipRepository = deviceOwnershipRepository;
+        this.ownershipChangePort = ownershipChangePort;
+        this.ownedDevices = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build(ownerId -> Set.copyOf(deviceOwnershipRepository.findDeviceIdsByOwnerId(ownerId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, ownedDevices, "device-ownership-index");
+    }
+
+    @Override
+    public Set<DeviceId> getOwnedDeviceIds(UserId ownerId) {
+        return ownedDevices.get(ownerId);
+    }
+
+    @Override
+    public boolean isOwner(UserId ownerId, DeviceId deviceId) {
+        if (ownerId == null || ownerId.getValue() == null || deviceId == null) {
+            return false;
+        }
+        return ownedDevices.get(ownerId).contains(deviceId);
+    }
+
+    @Override
+    @Transactional
+    public void grantOwnership(UserId ownerId, DeviceId deviceId) {
+        deviceOwnershipRepository.save(new DeviceOwnership(new DeviceOwnershipId(ownerId, deviceId), null));
+        ServiceUtils.runAfterCommit(() -> ownershipChanged(ownerId));
+    }
 
+    @Override
+    @Transactional
+    public void revokeOwnership(UserId ownerId, DeviceId deviceId) {
+        deviceOwnershipRepository.deleteById(new DeviceOwnershipId(ownerId, deviceId));
+        ServiceUtils.runAfterCommit(() -> ownershipChanged(ownerId));
+    }
 
+    @Override
+    public void invalidate(UserId ownerId) {
+        ownedDevices.invalidate(ownerId);
+    }
 
+    /**
+     * Invalidates locally right away, so this instance does not depend on the broker to see its own change.
+     */
+    private void ownershipChanged(UserId ownerId) {
+        ownedDevices.invalidate(ownerId);
+        ownershipChangePort.broadcastOwnershipChanged(ownerId);
+    }
 }
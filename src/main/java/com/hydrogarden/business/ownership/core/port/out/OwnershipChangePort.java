@@ -0,0 +1,11 @@
+package com.hydrogarden.business.ownership.core.port.out;
+
+import com.hydrogarden.common.UserId;
+
+/**
+ * Tells every application instance, including this one, that a user's ownership changed.
+ */
+public interface OwnershipChangePort {
+
+    void broadcastOwnershipChanged(UserId ownerId);
+}
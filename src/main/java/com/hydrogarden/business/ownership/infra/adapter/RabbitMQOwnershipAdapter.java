@@ -0,0 +1,31 @@
+package com.hydrogarden.business.ownership.infra.adapter;
+
+import com.hydrogarden.business.ownership.core.port.out.OwnershipChangePort;
+import com.hydrogarden.common.UserId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the owner's id to the ownership fanout exchange, which every instance listens to with its own queue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RabbitMQOwnershipAdapter implements OwnershipChangePort {
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange ownershipChangesExchange;
+
+    @Override
+    public void broadcastOwnershipChanged(UserId ownerId) {
+        try {
+            rabbitTemplate.convertAndSend(ownershipChangesExchange.getName(), "", ownerId.getValue());
+        } catch (AmqpException e) {
+            // Other instances then see the change once their index entry expires
+            log.warn("Failed to broadcast ownership change of user {}", ownerId.getValue(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hydrogarden.business.ownership.infra.adapter;
+
+import com.hydrogarden.business.ownership.app.service.OwnershipApplicationService;
+import com.hydrogarden.common.UserId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RabbitMQOwnershipListener {
+
+    private final OwnershipApplicationService ownershipApplicationService;
+
+    @RabbitListener(queues = "#{ownershipChanges.name}")
+    public void receiveOwnershipChanged(String ownerId) {
+        ownershipApplicationService.invalidate(new UserId(ownerId));
+    }
+}
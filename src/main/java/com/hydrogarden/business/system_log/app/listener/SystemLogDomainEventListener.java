@@ -1,22 +1,30 @@
 package com.hydrogarden.business.system_log.app.listener;
 
-import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.*;
 import com.hydrogarden.business.system_log.app.service.SystemLogApplicationService;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class SystemLogDomainEventListener {
 
     private final SystemLogApplicationService systemLogApplicationService;
 
-
-    @EventListener()
-    public void receiveDomainEvent(RegisteredDeviceStartDE message) {
-
+    /**
+     * Single listener for all audited events, so they share one delivery lane and keep their order.
+     */
+    @EventListener({
+            RegisteredDeviceStartDE.class,
+            RegisteredDeviceShutdownDE.class,
+            RegisteredDeviceConfigChangeDE.class,
+            RegisteredDeviceStateChangeDE.class,
+            ConfigSentDE.class,
+            NewStateSentDE.class
+    })
+    public void receiveDomainEvent(HydrogardenDomainEvent event) {
+        systemLogApplicationService.record(event);
     }
 }
@@ -1,9 +1,45 @@
 package com.hydrogarden.business.system_log.app.service;
 
-import lombok.RequiredArgsConstructor;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.system_log.core.SystemLogEntry;
+import com.hydrogarden.business.system_log.infra.repository.SystemLogRepository;
+import com.hydrogarden.common.AsyncBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
+/**
+ * Writes audited domain events to the system log. Entries are buffered and inserted in batches off the caller's thread.
+ * Audit entries are never dropped for a full buffer: the caller waits for space, which backs up only the system log's
+ * own event lane. That lane spills instead of blocking the publisher, so a slow database never stalls device traffic;
+ * only once its spill queue is full too are events dropped, counted in {@code hydrogarden.events.dropped}.
+ */
 @Service
-@RequiredArgsConstructor
 public class SystemLogApplicationService {
+
+    private final AsyncBatchWriter<SystemLogEntry> writer;
+
+    public SystemLogApplicationService(SystemLogRepository systemLogRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${hydrogarden.system-log.writer.capacity:10000}") int capacity,
+                                       @Value("${hydrogarden.system-log.writer.batch-size:500}") int batchSize,
+                                       @Value("${hydrogarden.system-log.writer.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.writer = new AsyncBatchWriter<>("system-log", capacity, batchSize,
+                Duration.ofMillis(flushIntervalMs), systemLogRepository::insertAll, meterRegistry);
+    }
+
+    /**
+     * Queues the event if it is audited, waiting while the buffer is full; other events are ignored.
+     */
+    public void record(HydrogardenDomainEvent event) {
+        SystemLogEntry.of(event).ifPresent(writer::put);
+    }
+
+    @PreDestroy
+    public void close() {
+        writer.close();
+    }
 }
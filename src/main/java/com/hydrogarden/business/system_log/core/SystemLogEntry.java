@@ -0,0 +1,63 @@
+package com.hydrogarden.business.system_log.core;
+
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.DeviceConfig;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * One audited event.
+ *
+ * @param deviceId device the event belongs to, null for system-wide events
+ * @param details  human-readable description of what changed, may be null
+ */
+public record SystemLogEntry(LocalDateTime occurredAt,
+                             Short deviceId,
+                             String eventType,
+                             String details) {
+
+    /**
+     * @return the entry for an audited event, empty for events that are not part of the system log
+     */
+    public static Optional<SystemLogEntry> of(HydrogardenDomainEvent event) {
+        return Optional.ofNullable(switch (event) {
+            case RegisteredDeviceStartDE e -> entry(e, e.getDeviceId(), null);
+            case RegisteredDeviceShutdownDE e -> entry(e, e.getDeviceId(), null);
+            case RegisteredDeviceConfigChangeDE e -> entry(e, e.getDeviceId(), change(describe(e.getOldConfig()), describe(e.getNewConfig())));
+            case ConfigSentDE e -> entry(e, e.getDeviceId(), change(describe(e.getOldConfig()), describe(e.getNewConfig())));
+            case RegisteredDeviceStateChangeDE e -> entry(e, e.getDeviceId(), change(describe(e.getOldState()), describe(e.getNewState())));
+            case NewStateSentDE e -> entry(e, e.getDeviceId(), change(describe(e.getOldState()), describe(e.getNewState())));
+            default -> null;
+        });
+    }
+
+    private static SystemLogEntry entry(HydrogardenDomainEvent event, DeviceId deviceId, String details) {
+        return new SystemLogEntry(event.getTimestamp(), deviceId == null ? null : deviceId.getId(), event.getClass().getSimpleName(), details);
+    }
+
+    private static String change(String oldValue, String newValue) {
+        return oldValue + " -> " + newValue;
+    }
+
+    private static String describe(DeviceConfig config) {
+        if (config == null) {
+            return "none";
+        }
+        return "standbyTimeout=%s, heartbeatInterval=%s".formatted(config.getStandbyTimeout(), config.getHeartbeatInterval());
+    }
+
+    private static String describe(List<CircuitState> states) {
+        if (states == null) {
+            return "none";
+        }
+        return states.stream()
+                .map(state -> Boolean.TRUE.equals(state.getValue()) ? "1" : "0")
+                .collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,37 @@
+package com.hydrogarden.business.system_log.infra.repository;
+
+import com.hydrogarden.business.system_log.core.SystemLogEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class SystemLogRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts entries as one JDBC batch; with {@code rewriteBatchedStatements} this is a single multi-row insert.
+     */
+    public void insertAll(List<SystemLogEntry> entries) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO system_log (occurred_at, device_id, event_type, details)
+                        VALUES (?, ?, ?, ?)""",
+                entries,
+                entries.size(),
+                (ps, entry) -> {
+                    ps.setObject(1, entry.occurredAt());
+                    if (entry.deviceId() == null) {
+                        ps.setNull(2, Types.SMALLINT);
+                    } else {
+                        ps.setShort(2, entry.deviceId());
+                    }
+                    ps.setString(3, entry.eventType());
+                    ps.setString(4, entry.details());
+                });
+    }
+}
@@ -0,0 +1,150 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Buffers records from hot paths and hands them to a sink in batches on a single background thread.
+ * {@link #offer} never blocks: when the buffer is full the record is dropped and counted. {@link #put} waits for space
+ * instead, for records that must not be lost.
+ * A batch is flushed when it reaches {@code batchSize} or {@code flushInterval} after its first record.
+ *
+ * @param <T> record type
+ */
+@Slf4j
+public class AsyncBatchWriter<T> implements AutoCloseable {
+    private static final String METRIC_PREFIX = "hydrogarden.batch_writer";
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Consumer<List<T>> sink;
+    private final Thread worker;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running = true;
+
+    public AsyncBatchWriter(String name, int capacity, int batchSize, Duration flushInterval,
+                            Consumer<List<T>> sink, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.sink = sink;
+        this.written = meterRegistry.counter(METRIC_PREFIX + ".written", "writer", name);
+        this.dropped = meterRegistry.counter(METRIC_PREFIX + ".dropped", "writer", name);
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".failed", "writer", name);
+        Gauge.builder(METRIC_PREFIX + ".queued", queue, BlockingQueue::size).tag("writer", name).register(meterRegistry);
+
+        this.worker = Thread.ofPlatform().name("batch-writer-" + name).daemon().start(this::run);
+    }
+
+    /**
+     * @return false if the buffer is full or the writer is closed and the record was dropped
+     */
+    public boolean offer(T record) {
+        if (running && queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Waits until the buffer has space, pushing back on the caller while the sink falls behind.
+     *
+     * @return false if the writer was closed or the caller interrupted while waiting, and the record was dropped
+     */
+    public boolean put(T record) {
+        try {
+            while (running) {
+                if (queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !awaitNext(batch, remaining)) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                running = false;
+            }
+
+            flush(batch);
+        }
+    }
+
+    private boolean awaitNext(List<T> batch, long remainingNanos) throws InterruptedException {
+        T next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+        if (next == null) {
+            return false;
+        }
+        batch.add(next);
+        return true;
+    }
+
+    private void flush(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sink.accept(List.copyOf(batch));
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Batch writer {} failed to write {} records", name, batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Stops accepting records and waits until the buffered ones are written.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.hydrogarden.common;
+
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers domain events to application listeners off the publishing thread.
+ * <p>
+ * Every listener gets its own lane: a bounded ring buffer drained by a dedicated worker, so a slow listener
+ * delays only itself. Events reach each listener in publishing order. When a lane is full, {@link OverflowPolicy}
+ * decides whether the publisher waits, the oldest queued event is dropped, or the event spills to a larger bounded
+ * overflow queue that is drained once the ring buffer is empty. Events that do not fit in the overflow queue either
+ * are dropped and counted in {@code hydrogarden.events.dropped}.
+ * <p>
+ * The default is {@code SPILL}: events are published from after-commit callbacks on request and message listener
+ * threads, which must not wait for a listener that is itself waiting on a slow database.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "hydrogarden.events.async.enabled", matchIfMissing = true)
+public class AsyncEventPublisher implements HydrogardenEventPublisher {
+    private static final String METRIC_PREFIX = "hydrogarden.events";
+
+    public enum OverflowPolicy {
+        /**
+         * The publisher waits for space; only for deployments where every listener is known to keep up.
+         */
+        BLOCK,
+        DROP_OLDEST,
+        SPILL
+    }
+
+    private final ApplicationContext applicationContext;
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int spillCapacity;
+
+    private final Map<ApplicationListener<?>, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<Lane>> lanesByEventType = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public AsyncEventPublisher(ApplicationContext applicationContext,
+                               MeterRegistry meterRegistry,
+                               @Value("${hydrogarden.events.async.capacity:1024}") int capacity,
+                               @Value("${hydrogarden.events.async.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+                               @Value("${hydrogarden.events.async.spill-capacity:65536}") int spillCapacity) {
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.spillCapacity = spillCapacity;
+    }
+
+    @Override
+    public void publish(HydrogardenDomainEvent event) {
+        if (!running) {
+            log.warn("Event bus stopped, discarding {}", event.getClass().getSimpleName());
+            return;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        for (Lane lane : lanesFor(event.getClass())) {
+            lane.offer(new Envelope(event, enqueuedAt));
+        }
+    }
+
+    @Override
+    public void publish(List<HydrogardenDomainEvent> events) {
+        events.forEach(this::publish);
+    }
+
+    private List<Lane> lanesFor(Class<?> eventType) {
+        return lanesByEventType.computeIfAbsent(eventType, type -> {
+            ResolvableType payloadType = ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, type);
+            List<Lane> matching = new ArrayList<>();
+            for (ApplicationListener<?> listener : listeners()) {
+                GenericApplicationListener genericListener = listener instanceof GenericApplicationListener generic
+                        ? generic
+                        : new GenericApplicationListenerAdapter(listener);
+                if (genericListener.supportsEventType(payloadType)) {
+                    matching.add(lanes.computeIfAbsent(listener, l -> new Lane(genericListener, listenerName(l))));
+                }
+            }
+            return List.copyOf(matching);
+        });
+    }
+
+    private Iterable<ApplicationListener<?>> listeners() {
+        if (applicationContext instanceof AbstractApplicationContext context) {
+            return context.getApplicationListeners();
+        }
+        throw new IllegalStateException("Listeners of " + applicationContext.getClass() + " cannot be enumerated");
+    }
+
+    private static String listenerName(ApplicationListener<?> listener) {
+        if (listener instanceof SmartApplicationListener smart && !smart.getListenerId().isEmpty()) {
+            return smart.getListenerId();
+        }
+        return listener.getClass().getName();
+    }
+
+    /**
+     * Stops accepting events and gives every lane a moment to drain.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        lanes.values().forEach(Lane::close);
+    }
+
+    private record Envelope(HydrogardenDomainEvent event, long enqueuedAt) {
+    }
+
+    private class Lane {
+        private final GenericApplicationListener listener;
+        private final String name;
+        private final BlockingQueue<Envelope> ring;
+        private final BlockingQueue<Envelope> spill;
+        private final Thread worker;
+        private final Counter dropped;
+        private final Counter spilled;
+        private final Counter failed;
+        private final Timer latency;
+
+        private Lane(GenericApplicationListener listener, String name) {
+            this.listener = listener;
+            this.name = name;
+            this.ring = new ArrayBlockingQueue<>(capacity);
+            this.spill = new LinkedBlockingQueue<>(spillCapacity);
+            this.dropped = meterRegistry.counter(METRIC_PREFIX + ".dropped", "listener", name);
+            this.spilled = meterRegistry.counter(METRIC_PREFIX + ".spilled", "listener", name);
+            this.failed = meterRegistry.counter(METRIC_PREFIX + ".failed", "listener", name);
+            this.latency = Timer.builder(METRIC_PREFIX + ".latency")
+                    .description("Time from publishing an event until the listener finished handling it")
+                    .tag("listener", name)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".queue.depth", ring, Queue::size).tag("listener", name).register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".spill.depth", spill, Queue::size).tag("listener", name).register(meterRegistry);
+
+            this.worker = Thread.ofPlatform().name("event-lane-" + name).daemon().start(this::run);
+        }
+
+        private void offer(Envelope envelope) {
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    try {
+                        ring.put(envelope);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped.increment();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!ring.offer(envelope)) {
+                        if (ring.poll() != null) {
+                            dropped.increment();
+                        }
+                    }
+                }
+                case SPILL -> {
+                    // Once spilling, keep spilling until the worker caught up, so order is preserved
+                    if (spill.isEmpty() && ring.offer(envelope)) {
+                        return;
+                    }
+                    if (spill.offer(envelope)) {
+                        spilled.increment();
+                    } else {
+                        dropped.increment();
+                    }
+                }
+            }
+        }
+
+        private void run() {
+            while (running || !ring.isEmpty() || !spill.isEmpty()) {
+                try {
+                    Envelope envelope = ring.poll();
+                    if (envelope == null) {
+                        envelope = spill.poll();
+                    }
+                    if (envelope == null) {
+                        envelope = ring.poll(100, TimeUnit.MILLISECONDS);
+                    }
+                    if (envelope != null) {
+                        deliver(envelope);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void deliver(Envelope envelope) {
+            try {
+                listener.onApplicationEvent(new PayloadApplicationEvent<>(AsyncEventPublisher.this, envelope.event()));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Listener {} failed on {}", name, envelope.event().getClass().getSimpleName(), e);
+            } finally {
+                latency.record(System.nanoTime() - envelope.enqueuedAt(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void close() {
+            try {
+                worker.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hydrogarden.common;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Like {@link AuthorizedForDevice}, and additionally grants access to every device the user owns.
+ * The claim is checked first; ownership is a lookup in the in-memory ownership index.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@PreAuthorize("#deviceId == authentication.details or (authentication instanceof T(com.hydrogarden.common.UserSecurityModel)"
+        + " and @ownershipApplicationServiceImpl.isOwner(authentication.userId, #deviceId))")
+public @interface AuthorizedForOwnedDevice {
+}
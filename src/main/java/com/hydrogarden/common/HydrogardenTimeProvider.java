@@ -3,5 +3,13 @@ package com.hydrogarden.common;
 import java.time.LocalDateTime;
 
 public interface HydrogardenTimeProvider {
+    /**
+     * @return current UTC wall-clock time
+     */
     LocalDateTime getCurrentTime();
+
+    /**
+     * @return current time in epoch milliseconds; allocation-free, use it on hot paths
+     */
+    long getCurrentTimeMillis();
 }
@@ -2,46 +2,177 @@ package com.hydrogarden.common;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Keeps {@link JwtKeyCache} filled from the JWKS endpoint.
+ * <p>
+ * Startup never waits for the endpoint: keys are loaded from the on-disk snapshot of the last good key set and
+ * refreshed in the background, the first time right after startup by the scheduler. A failed refresh keeps the
+ * last good keys. Refreshes are single-flight; a token with an unknown kid triggers one at most every
+ * {@code min-refresh-interval-ms}, so a key rotation is picked up on its first use.
+ */
+@Slf4j
 @Component
 public class JwksWebservice {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final ObjectMapper mapper = new ObjectMapper();
     private final JwtKeyCache jwtKeyCache;
     private final String jwksUrl;
+    private final Path snapshotPath;
+    private final long minRefreshIntervalNanos;
+    private final Duration unknownKidWait;
+    private final Counter refreshed;
+    private final Counter failed;
 
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>(CompletableFuture.completedFuture(null));
+    private volatile long lastRefreshStartNanos;
 
-    public JwksWebservice(JwtKeyCache jwtKeyCache, @Value("${hydrogarden.clerk.jwks.url}") String jwksUrl) {
+    public JwksWebservice(JwtKeyCache jwtKeyCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${hydrogarden.clerk.jwks.url}") String jwksUrl,
+                          @Value("${hydrogarden.clerk.jwks.snapshot-path:./hg-data/jwks.json}") Path snapshotPath,
+                          @Value("${hydrogarden.clerk.jwks.min-refresh-interval-ms:30000}") long minRefreshIntervalMs,
+                          @Value("${hydrogarden.clerk.jwks.unknown-kid-wait-ms:2000}") long unknownKidWaitMs,
+                          @Value("${hydrogarden.clerk.jwks.timeout-ms:3000}") long timeoutMs) {
         this.jwtKeyCache = jwtKeyCache;
         this.jwksUrl = jwksUrl;
+        this.snapshotPath = snapshotPath;
+        this.minRefreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minRefreshIntervalMs);
+        this.lastRefreshStartNanos = System.nanoTime() - minRefreshIntervalNanos;
+        this.unknownKidWait = Duration.ofMillis(unknownKidWaitMs);
+        this.refreshed = meterRegistry.counter("hydrogarden.jwks.refresh", "outcome", "success");
+        this.failed = meterRegistry.counter("hydrogarden.jwks.refresh", "outcome", "failure");
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
     }
 
     @PostConstruct
-    public void init() throws Exception {
-        refreshJwks();
+    public void init() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            log.info("No JWKS snapshot at {}, waiting for the first refresh", snapshotPath);
+            return;
+        }
+        try {
+            jwtKeyCache.setPublicKeys(parseKeys(Files.readString(snapshotPath, StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable JWKS snapshot {}", snapshotPath, e);
+        }
     }
 
     @Scheduled(fixedDelayString = "${hydrogarden.clerk.jwks.refresh-ms:3600000}")
-    public void refreshJwks() throws Exception {
-        ResponseEntity<String> response = restTemplate.getForEntity(jwksUrl, String.class);
-        Map<String, Object> jwksMap = mapper.readValue(response.getBody(), new TypeReference<>() {
+    public void refreshJwks() {
+        refresh(true);
+    }
+
+    /**
+     * Starts a background refresh unless one is running, which is then returned instead.
+     *
+     * @param force false to skip the refresh when the last one started less than {@code min-refresh-interval-ms} ago
+     * @return completes when the refresh finished, successfully or not
+     */
+    public CompletableFuture<Void> refresh(boolean force) {
+        CompletableFuture<Void> current = inFlight.get();
+        if (!current.isDone()) {
+            return current;
+        }
+        if (!force && System.nanoTime() - lastRefreshStartNanos < minRefreshIntervalNanos) {
+            return current;
+        }
+
+        CompletableFuture<Void> next = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(current, next)) {
+            return inFlight.get();
+        }
+        lastRefreshStartNanos = System.nanoTime();
+        Thread.ofVirtual().name("jwks-refresh").start(() -> {
+            fetch();
+            next.complete(null);
+        });
+        return next;
+    }
+
+    /**
+     * Looks up a kid missing from {@link JwtKeyCache}, waiting briefly for a (rate-limited) refresh.
+     *
+     * @return the key, or null if the refreshed key set does not have it either
+     */
+    public PublicKey awaitKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        try {
+            refresh(false).get(unknownKidWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("JWKS refresh for kid {} did not finish in time", kid);
+        }
+        return jwtKeyCache.getByKid(kid);
+    }
+
+    private void fetch() {
+        try {
+            String body = restTemplate.getForObject(jwksUrl, String.class);
+            Map<String, PublicKey> keys = parseKeys(body);
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("JWKS has no keys");
+            }
+            jwtKeyCache.setPublicKeys(keys);
+            writeSnapshot(body);
+            refreshed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("JWKS refresh from {} failed, keeping {} last good keys", jwksUrl, jwtKeyCache.getPublicKeys().size(), e);
+        }
+    }
+
+    private void writeSnapshot(String body) {
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "jwks", ".tmp");
+            Files.writeString(temp, body, StandardCharsets.UTF_8);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write JWKS snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private Map<String, PublicKey> parseKeys(String jwks) throws IOException {
+        Map<String, Object> jwksMap = mapper.readValue(jwks, new TypeReference<>() {
         });
         List<Map<String, String>> keys = (List<Map<String, String>>) jwksMap.get("keys");
 
@@ -60,7 +191,6 @@ public class JwksWebservice {
                 throw new RuntimeException("Failed to parse key " + key.get("kid"), e);
             }
         }
-
-        this.jwtKeyCache.setPublicKeys(kidToKeyMap);
+        return kidToKeyMap;
     }
 }
@@ -18,6 +18,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.security.Key;
+import java.util.Date;
 import java.util.List;
 
 @Log4j2
@@ -25,11 +26,23 @@ import java.util.List;
 @Profile("!auth-disabled")
 public class JwtAuthenticationFilter extends HydrogardenAuthenticationFilter {
     private final JwtKeyCache jwtKeyCache;
+    private final JwksWebservice jwksWebservice;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final String contextPath;
+    /**
+     * Immutable and thread-safe; keys are looked up per token, so it survives JWKS refreshes.
+     */
+    private final JwtParser jwtParser;
 
-    public JwtAuthenticationFilter(JwtKeyCache jwtKeyCache, @Value("${server.servlet.context-path}") String contextPath) {
+    public JwtAuthenticationFilter(JwtKeyCache jwtKeyCache, JwksWebservice jwksWebservice, VerifiedTokenCache verifiedTokenCache,
+                                   @Value("${server.servlet.context-path}") String contextPath) {
         this.jwtKeyCache = jwtKeyCache;
+        this.jwksWebservice = jwksWebservice;
+        this.verifiedTokenCache = verifiedTokenCache;
         this.contextPath = contextPath;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new MyKeyLocator())
+                .build();
     }
 
     @Override
@@ -39,15 +52,9 @@ public class JwtAuthenticationFilter extends HydrogardenAuthenticationFilter {
             String token = authHeader.substring(7);
 
             try {
-                Jws<Claims> jws = Jwts.parser()
-                        .keyLocator(new MyKeyLocator())
-                        .build().parseSignedClaims(token);
+                VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token, this::verify);
 
-                String userId = jws.getPayload().get("userId", String.class);
-                String deviceId = jws.getPayload().get("deviceId", String.class);
-
-                UserSecurityModel auth =
-                        new UserSecurityModel(new UserId(userId), new DeviceId(Short.valueOf(deviceId)));
+                UserSecurityModel auth = new UserSecurityModel(verified.userId(), verified.deviceId());
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
             } catch (Exception e) {
@@ -58,11 +65,33 @@ public class JwtAuthenticationFilter extends HydrogardenAuthenticationFilter {
         filterChain.doFilter(request, response);
     }
 
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+
+        String userId = jws.getPayload().get("userId", String.class);
+        // Optional: users owning several devices get tokens without it and are authorized by ownership
+        String deviceId = jws.getPayload().get("deviceId", String.class);
+        String kid = jws.getHeader().getKeyId();
+        Date expiration = jws.getPayload().getExpiration();
+
+        return new VerifiedTokenCache.VerifiedToken(
+                new UserId(userId),
+                deviceId == null ? null : new DeviceId(Short.valueOf(deviceId)),
+                kid,
+                jwtKeyCache.getByKid(kid),
+                expiration == null ? null : expiration.toInstant());
+    }
+
+    /**
+     * An unknown kid usually means the keys were rotated, so it triggers a JWKS refresh before the token is rejected.
+     */
     private class MyKeyLocator implements Locator<Key> {
 
         @Override
         public Key locate(Header header) {
-            return jwtKeyCache.getByKid((String) header.get("kid"));
+            String kid = (String) header.get("kid");
+            Key key = jwtKeyCache.getByKid(kid);
+            return key != null ? key : jwksWebservice.awaitKey(kid);
         }
     }
 }
@@ -4,27 +4,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.security.PublicKey;
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Current JWKS keys by kid. The key set is replaced as a whole by swapping an immutable map,
+ * so request threads read it without locking.
+ */
 @Slf4j
 @Component
 public class JwtKeyCache {
-    private volatile Map<String, PublicKey> kidToKeyMap;
+    private volatile Map<String, PublicKey> kidToKeyMap = Map.of();
 
-    public synchronized void setPublicKeys(Map<String, PublicKey> kidPubkeyMap) {
-        this.kidToKeyMap = new HashMap<>(kidPubkeyMap);
-        StringBuilder kids = new StringBuilder();
-        kidToKeyMap.forEach((kid,publicKey) -> kids.append("%s, ".formatted(kid)));
-
-        log.info("JwtKeyCache has been updated. kid=[{}]",kids.toString());
+    public void setPublicKeys(Map<String, PublicKey> kidPubkeyMap) {
+        this.kidToKeyMap = Map.copyOf(kidPubkeyMap);
+        log.info("JwtKeyCache has been updated. kid=[{}]", String.join(", ", kidPubkeyMap.keySet()));
     }
 
-    public synchronized Map<String, PublicKey> getPublicKeys() {
+    public Map<String, PublicKey> getPublicKeys() {
         return this.kidToKeyMap;
     }
 
     public PublicKey getByKid(String kid) {
-        return kidToKeyMap.get(kid);
+        return kid == null ? null : kidToKeyMap.get(kid);
     }
 }
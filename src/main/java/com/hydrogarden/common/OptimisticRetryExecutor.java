@@ -0,0 +1,83 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when the commit loses an optimistic lock race.
+ * The callback must re-load everything it modifies, so every attempt applies the change to fresh state.
+ * Backoff grows exponentially with full jitter, capped at {@code max-backoff-ms}.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+    private static final String METRIC_PREFIX = "hydrogarden.optimistic_lock";
+
+    private final TransactionOperations transactionOperations;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryExecutor(TransactionOperations transactionOperations,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${hydrogarden.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${hydrogarden.optimistic-retry.initial-backoff-ms:10}") long initialBackoffMs,
+                                   @Value("${hydrogarden.optimistic-retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.transactionOperations = transactionOperations;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * @param operation name of the operation, used as metric tag
+     * @param callback  transactional work; executed up to {@code max-attempts} times
+     * @return result of the successful attempt
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(String operation, TransactionCallback<T> callback) {
+        counter("executions", operation).increment();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(callback);
+            } catch (OptimisticLockingFailureException e) {
+                counter("conflicts", operation).increment();
+
+                if (attempt >= maxAttempts) {
+                    counter("retries_exhausted", operation).increment();
+                    log.warn("Optimistic lock conflict in {} not resolved after {} attempts", operation, attempt);
+                    throw e;
+                }
+
+                log.debug("Optimistic lock conflict in {}, attempt {}/{}", operation, attempt, maxAttempts);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off after optimistic lock conflict", e);
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(METRIC_PREFIX + "." + name, "operation", operation);
+    }
+}
@@ -0,0 +1,73 @@
+package com.hydrogarden.common;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Active when {@code hydrogarden.mysql.replica.host} is set: {@code @Transactional(readOnly = true)} work runs
+ * on the replica, everything else (including Flyway and non-transactional access) on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hydrogarden.mysql.replica", name = "host")
+public class ReadReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties,
+                                              @Value("${hydrogarden.mysql.replica.host}") String host,
+                                              @Value("${hydrogarden.mysql.replica.port:${hydrogarden.mysql.port}}") int port,
+                                              @Value("${hydrogarden.mysql.replica.username:${hydrogarden.mysql.username}}") String username,
+                                              @Value("${hydrogarden.mysql.replica.password:${hydrogarden.mysql.password}}") String password,
+                                              @Value("${hydrogarden.service-name}") String database,
+                                              @Value("${hydrogarden.mysql.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+                                              @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeoutMs) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.getDriverClassName())
+                .url("jdbc:mysql://%s:%d/%s".formatted(host, port, database))
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${hydrogarden.mysql.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                               @Value("${hydrogarden.mysql.replica.lag-check-enabled:true}") boolean lagCheckEnabled,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLagSeconds, lagCheckEnabled, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor::isUsable));
+    }
+}
@@ -0,0 +1,74 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Polls replication lag of the replica. The replica is usable only while the last check succeeded and its lag
+ * is within {@code maxLagSeconds}; any failure falls back to the primary until the next successful check.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final boolean lagCheckEnabled;
+
+    private volatile long lagSeconds = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds, boolean lagCheckEnabled, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheckEnabled = lagCheckEnabled;
+        this.usable = !lagCheckEnabled;
+
+        Gauge.builder("hydrogarden.datasource.replica.lag", this, m -> m.lagSeconds).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("hydrogarden.datasource.replica.usable", this, m -> m.usable ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${hydrogarden.mysql.replica.lag-check-interval-ms:2000}")
+    public void checkLag() {
+        if (!lagCheckEnabled) {
+            return;
+        }
+
+        long lag = readLagSeconds();
+        boolean wasUsable = usable;
+        lagSeconds = lag;
+        usable = lag >= 0 && lag <= maxLagSeconds;
+
+        if (wasUsable != usable) {
+            log.warn("Replica {} for read-only transactions, lag={}s", usable ? "enabled" : "disabled", lag);
+        }
+    }
+
+    /**
+     * @return seconds behind the source, or -1 if unknown (replication stopped, not a replica, or unreachable)
+     */
+    private long readLagSeconds() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!resultSet.next()) {
+                return -1;
+            }
+            long lag = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? -1 : lag;
+        } catch (Exception e) {
+            log.debug("Replica lag check failed", e);
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes hit, miss and put counts of every Hibernate second-level cache region.
+ * Active only with {@code hydrogarden.jpa.statistics.enabled}, which also turns on {@code hibernate.generate_statistics}.
+ */
+@Component
+@ConditionalOnProperty(name = "hydrogarden.jpa.statistics.enabled")
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private static final String METRIC_NAME = "hydrogarden.cache.second_level";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            register(registry, statistics, region, "hit", CacheRegionStatistics::getHitCount);
+            register(registry, statistics, region, "miss", CacheRegionStatistics::getMissCount);
+            register(registry, statistics, region, "put", CacheRegionStatistics::getPutCount);
+        }
+    }
+
+    private void register(MeterRegistry registry, Statistics statistics, String region, String result,
+                          ToDoubleFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder(METRIC_NAME, statistics, s -> {
+                    CacheRegionStatistics regionStatistics = s.getDomainDataRegionStatistics(region);
+                    return regionStatistics == null ? 0 : count.applyAsDouble(regionStatistics);
+                })
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -4,12 +4,18 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Primary
 @Component
 public class ServerLocalTimeProvider implements HydrogardenTimeProvider {
     @Override
     public LocalDateTime getCurrentTime() {
-        return LocalDateTime.now();
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    @Override
+    public long getCurrentTimeMillis() {
+        return System.currentTimeMillis();
     }
 }
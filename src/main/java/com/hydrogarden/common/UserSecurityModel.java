@@ -1,6 +1,7 @@
 package com.hydrogarden.common;
 
 import com.hydrogarden.business.device.core.entity.DeviceId;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
 import org.springframework.security.core.Authentication;
@@ -12,6 +13,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserSecurityModel implements Authentication {
 
+    @Getter
     private final UserId userId;
     private final @Nullable DeviceId deviceId;
 
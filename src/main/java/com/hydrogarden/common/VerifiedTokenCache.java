@@ -0,0 +1,101 @@
+package com.hydrogarden.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tokens whose signature was already verified, keyed by the SHA-256 digest of the token.
+ * <p>
+ * An entry expires at the token's {@code exp} (at most {@code max-ttl-ms} after verification) and is ignored once
+ * the key that verified it is no longer in {@link JwtKeyCache}, so a JWKS rotation forces re-verification.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * Claims of a verified token, with the key that verified it.
+     *
+     * @param deviceId  {@code deviceId} claim of the token, null if it has none
+     * @param expiresAt {@code exp} of the token, null if it has none
+     */
+    public record VerifiedToken(UserId userId, DeviceId deviceId, String kid, PublicKey key, Instant expiresAt) {
+    }
+
+    private final JwtKeyCache jwtKeyCache;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtKeyCache jwtKeyCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${hydrogarden.auth.token-cache.max-size:10000}") long maxSize,
+                              @Value("${hydrogarden.auth.token-cache.max-ttl-ms:600000}") long maxTtlMs) {
+        this.jwtKeyCache = jwtKeyCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(Duration.ofMillis(maxTtlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-verified-tokens");
+    }
+
+    /**
+     * @param verifier verifies the signature and reads the claims on a miss; its exceptions are propagated
+     *                 and nothing is cached
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        String digest = digest(token);
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null && cached.key() != null && cached.key().equals(jwtKeyCache.getByKid(cached.kid()))) {
+            return cached;
+        }
+
+        VerifiedToken verified = verifier.apply(token);
+        cache.put(digest, verified);
+        return verified;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record UntilTokenExpiry(Duration maxTtl) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            if (token.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+            return Math.clamp(remaining.toNanos(), 0L, maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
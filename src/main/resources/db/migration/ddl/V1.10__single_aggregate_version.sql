@@ -0,0 +1,7 @@
+-- The aggregate version becomes device_vitals.version alone; changes of the device row force-increment it.
+-- Folding the device row version in keeps it at or above every summed version already stored
+-- in device_snapshot and device_vitals_view.
+
+UPDATE device_vitals v
+    JOIN device d ON d.id = v.id
+SET v.version = v.version + d.version;
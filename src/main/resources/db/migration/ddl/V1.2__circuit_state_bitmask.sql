@@ -0,0 +1,33 @@
+-- Circuit states move from one row per circuit to two bitmasks on device_vitals.
+-- Bit i of circuit_states / desired_circuit_states belongs to the circuit with bit_index = i.
+-- Supports up to 64 circuits per device.
+
+ALTER TABLE device_vitals
+    ADD COLUMN circuit_count          SMALLINT NOT NULL DEFAULT 0,
+    ADD COLUMN circuit_states         BIGINT   NOT NULL DEFAULT 0,
+    ADD COLUMN desired_circuit_states BIGINT   NOT NULL DEFAULT 0;
+
+ALTER TABLE circuit
+    ADD COLUMN bit_index SMALLINT NULL;
+
+UPDATE circuit c
+    JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY device_id ORDER BY id) - 1 AS bit_index
+          FROM circuit) ranked ON ranked.id = c.id
+SET c.bit_index = ranked.bit_index;
+
+UPDATE device_vitals v
+    JOIN (SELECT device_id,
+                 COUNT(*)                                                    AS circuit_count,
+                 CAST(BIT_OR(IF(state = b'1', 1 << bit_index, 0)) AS SIGNED)         AS circuit_states,
+                 CAST(BIT_OR(IF(desired_state = b'1', 1 << bit_index, 0)) AS SIGNED) AS desired_circuit_states
+          FROM circuit
+          GROUP BY device_id) packed ON packed.device_id = v.id
+SET v.circuit_count          = packed.circuit_count,
+    v.circuit_states         = packed.circuit_states,
+    v.desired_circuit_states = packed.desired_circuit_states;
+
+ALTER TABLE circuit
+    MODIFY bit_index SMALLINT NOT NULL,
+    DROP COLUMN state,
+    DROP COLUMN desired_state,
+    ADD CONSTRAINT uq_circuit_device_bit_index UNIQUE (device_id, bit_index);
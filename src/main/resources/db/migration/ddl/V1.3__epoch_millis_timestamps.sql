@@ -0,0 +1,21 @@
+-- Device timing moves from DATETIME (server local time) to epoch milliseconds.
+-- 0 means "never happened". Existing values are converted using the session time zone,
+-- which is the zone they were written in.
+
+ALTER TABLE device_vitals
+    ADD COLUMN last_keep_alive_send_ms BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_config_send_ms     BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_new_state_send_ms  BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN last_command_receive_ms BIGINT NOT NULL DEFAULT 0;
+
+UPDATE device_vitals
+SET last_keep_alive_send_ms = COALESCE(UNIX_TIMESTAMP(last_keep_alive_send_time) * 1000, 0),
+    last_config_send_ms     = COALESCE(UNIX_TIMESTAMP(last_config_send_time) * 1000, 0),
+    last_new_state_send_ms  = COALESCE(UNIX_TIMESTAMP(last_new_state_send_time) * 1000, 0),
+    last_command_receive_ms = COALESCE(UNIX_TIMESTAMP(last_command_receive_time) * 1000, 0);
+
+ALTER TABLE device_vitals
+    DROP COLUMN last_keep_alive_send_time,
+    DROP COLUMN last_config_send_time,
+    DROP COLUMN last_new_state_send_time,
+    DROP COLUMN last_command_receive_time;
@@ -0,0 +1,7 @@
+-- Optimistic locking: device covers name and intervals, device_vitals covers state, timing and circuit states.
+
+ALTER TABLE device
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE device_vitals
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
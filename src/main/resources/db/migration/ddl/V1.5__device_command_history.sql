@@ -0,0 +1,18 @@
+-- Append-only history of device traffic, range-partitioned by day on occurred_at.
+-- Daily partitions are split off p_future and dropped after retention by DeviceHistoryPartitionScheduledTask.
+-- No foreign key to device: partitioned InnoDB tables cannot have one, and history outlives devices.
+
+CREATE TABLE device_command_history
+(
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    occurred_at  DATETIME(3)  NOT NULL,
+    device_id    SMALLINT     NOT NULL,
+    direction    TINYINT      NOT NULL,
+    command_type VARCHAR(32)  NOT NULL,
+    payload      VARBINARY(255) NULL,
+    CONSTRAINT pk_device_command_history PRIMARY KEY (id, occurred_at),
+    INDEX idx_device_command_history_device_time (device_id, occurred_at)
+)
+    PARTITION BY RANGE COLUMNS (occurred_at) (
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+        );
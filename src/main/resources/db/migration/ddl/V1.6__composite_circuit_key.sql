@@ -0,0 +1,14 @@
+-- Circuit IDs become unique per device: primary key (device_id, id).
+-- The clustered key groups a device's circuits together, so loading them is a single index range read.
+-- Existing IDs stay valid as they were globally unique.
+
+ALTER TABLE circuit
+    MODIFY device_id SMALLINT NOT NULL;
+
+ALTER TABLE circuit
+    DROP PRIMARY KEY,
+    ADD CONSTRAINT pk_circuit PRIMARY KEY (device_id, id);
+
+-- The foreign key is now served by the primary key prefix
+ALTER TABLE circuit
+    DROP INDEX FK_CIRCUIT_ON_DEVICE;
@@ -0,0 +1,12 @@
+-- Audit trail of device lifecycle, config and state events. Append-only, written in multi-row batches.
+
+CREATE TABLE system_log
+(
+    id          BIGINT        NOT NULL AUTO_INCREMENT,
+    occurred_at DATETIME(3)   NOT NULL,
+    device_id   SMALLINT      NULL,
+    event_type  VARCHAR(64)   NOT NULL,
+    details     VARCHAR(1024) NULL,
+    CONSTRAINT pk_system_log PRIMARY KEY (id),
+    INDEX idx_system_log_device_time (device_id, occurred_at)
+);
@@ -0,0 +1,31 @@
+-- Optional event store (hydrogarden.device.event-store.enabled): an append-only stream of device domain events
+-- and the latest snapshot per device. The snapshot records the last event it covers, so a stream is read
+-- as snapshot + events with a greater id. The device, device_vitals and circuit tables stay the query model.
+
+CREATE TABLE device_event
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    device_id   SMALLINT     NOT NULL,
+    occurred_at DATETIME(3)  NOT NULL,
+    event_type  VARCHAR(64)  NOT NULL,
+    payload     VARCHAR(512) NULL,
+    CONSTRAINT pk_device_event PRIMARY KEY (id),
+    INDEX idx_device_event_device_id (device_id, id)
+);
+
+CREATE TABLE device_snapshot
+(
+    device_id                 SMALLINT     NOT NULL,
+    last_event_id             BIGINT       NOT NULL,
+    version                   BIGINT       NOT NULL,
+    taken_at                  DATETIME(3)  NOT NULL,
+    name                      VARCHAR(255) NOT NULL,
+    state                     VARCHAR(255) NULL,
+    desired_state             VARCHAR(255) NOT NULL,
+    last_keep_alive_send_time DATETIME(3)  NULL,
+    last_command_receive_time DATETIME(3)  NULL,
+    circuit_count             SMALLINT     NOT NULL,
+    circuit_states            BIGINT       NOT NULL,
+    desired_circuit_states    BIGINT       NOT NULL,
+    CONSTRAINT pk_device_snapshot PRIMARY KEY (device_id)
+);
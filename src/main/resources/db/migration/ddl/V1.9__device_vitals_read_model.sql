@@ -0,0 +1,20 @@
+-- Denormalized read model of device vitals, one row per device, kept current by DeviceVitalsProjector
+-- from committed changes and rebuilt from device, device_vitals and circuit on demand.
+-- version is the aggregate version, device_vitals.version (see V1.10); rows are only replaced by newer versions.
+
+CREATE TABLE device_vitals_view
+(
+    device_id               SMALLINT     NOT NULL,
+    version                 BIGINT       NOT NULL,
+    name                    VARCHAR(255) NOT NULL,
+    state                   VARCHAR(255) NULL,
+    desired_state           VARCHAR(255) NOT NULL,
+    last_keep_alive_send_ms BIGINT       NOT NULL,
+    last_command_receive_ms BIGINT       NOT NULL,
+    circuit_count           SMALLINT     NOT NULL,
+    circuit_states          BIGINT       NOT NULL,
+    desired_circuit_states  BIGINT       NOT NULL,
+    circuits                JSON         NOT NULL,
+    projected_at            DATETIME(3)  NOT NULL,
+    CONSTRAINT pk_device_vitals_view PRIMARY KEY (device_id)
+);
@@ -0,0 +1,98 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.common.UserId;
+import com.hydrogarden.common.UserSecurityModel;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Device aggregate version Tests")
+class DeviceAggregateVersionTest extends HydrogardenIntegrationTest {
+
+    private static final short DEVICE_ID = 201;
+
+    @Autowired
+    private DeviceApplicationService deviceApplicationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DeviceSnapshotStore deviceSnapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO device (id, name, keepalive_interval, config_interval, new_state_interval)
+                VALUES (?, 'Device #201', 20000, 5000, 5000)""", DEVICE_ID);
+        jdbcTemplate.update("""
+                INSERT INTO device_vitals (id, state, desired_state, standby_timeout, heartbeat_interval,
+                                           desired_standby_timeout, desired_heartbeat_interval)
+                VALUES (?, 'ALIVE', 'ALIVE', 80000, 20000, 60000, 30000)""", DEVICE_ID);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UserSecurityModel(new UserId("version_test_user"), new DeviceId(DEVICE_ID)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM device_vitals WHERE id = ?", DEVICE_ID);
+        jdbcTemplate.update("DELETE FROM device WHERE id = ?", DEVICE_ID);
+        jdbcTemplate.update("DELETE FROM device_vitals_view WHERE device_id = ?", DEVICE_ID);
+        entityManagerFactory.getCache().evictAll();
+        deviceSnapshotStore.evict(new DeviceId(DEVICE_ID));
+    }
+
+    @Test
+    @DisplayName("A change of the device row alone advances the aggregate version held by the vitals row")
+    void renameDevice_AdvancesVitalsVersion() {
+        long before = vitalsVersion();
+
+        Device renamed = deviceApplicationService.renameDevice(new DeviceId(DEVICE_ID), "Renamed");
+
+        assertThat(vitalsVersion()).as("Vitals version").isEqualTo(before + 1);
+        assertThat(renamed.getAggregateVersion()).as("Aggregate version of the returned device").isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("Version behind the ETag is the committed vitals version, also for changes made elsewhere")
+    void getDeviceVersion_ReadsCommittedVersion() {
+        jdbcTemplate.update("UPDATE device_vitals SET version = version + 1 WHERE id = ?", DEVICE_ID);
+
+        assertThat(deviceApplicationService.getDeviceVersion(new DeviceId(DEVICE_ID))).hasValue(vitalsVersion());
+    }
+
+    @Test
+    @DisplayName("Snapshot known to this instance is replaced once a change committed elsewhere is broadcast")
+    void getDeviceSnapshot_AfterChangeElsewhere_ServesCommittedVersion() {
+        DeviceId deviceId = new DeviceId(DEVICE_ID);
+        deviceApplicationService.getDeviceSnapshot(deviceId);
+
+        jdbcTemplate.update("UPDATE device_vitals SET desired_state = 'DEAD', version = version + 5 WHERE id = ?", DEVICE_ID);
+        deviceApplicationService.receiveDeviceChanged(deviceId, vitalsVersion());
+
+        DeviceSnapshot snapshot = deviceApplicationService.getDeviceSnapshot(deviceId);
+        assertThat(snapshot.version()).isEqualTo(vitalsVersion());
+        assertThat(snapshot.desiredState()).isEqualTo(DeviceState.DEAD);
+    }
+
+    private long vitalsVersion() {
+        return jdbcTemplate.queryForObject("SELECT version FROM device_vitals WHERE id = ?", Long.class, DEVICE_ID);
+    }
+}
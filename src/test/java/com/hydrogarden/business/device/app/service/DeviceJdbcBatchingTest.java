@@ -0,0 +1,140 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.app.store.DeviceSnapshotStore;
+import com.hydrogarden.business.device.core.commands.AckStateCommand;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import com.hydrogarden.test.utils.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips per message and per routine chunk must not grow with circuit or device count.
+ */
+@DisplayName("Device JDBC batching Tests")
+class DeviceJdbcBatchingTest extends HydrogardenIntegrationTest {
+
+    private static final int FIRST_EXTRA_DEVICE_ID = 101;
+    private static final int EXTRA_DEVICE_COUNT = 20;
+
+    @Autowired
+    private DeviceApplicationService deviceApplicationService;
+
+    @Autowired
+    private DeviceRoutineApplicationService deviceRoutineApplicationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DeviceSnapshotStore deviceSnapshotStore;
+
+    @Autowired
+    private DeviceVitalsReadModel deviceVitalsReadModel;
+
+    private List<Map<String, Object>> seededVitals;
+
+    @BeforeEach
+    void saveSeededVitals() {
+        seededVitals = jdbcTemplate.queryForList("SELECT * FROM device_vitals WHERE id < ?", FIRST_EXTRA_DEVICE_ID);
+    }
+
+    /**
+     * The routine runs over every device, so the seeded vitals are written back, as a newer version so that
+     * in-memory state and late projections of the test's changes cannot shadow them.
+     */
+    @AfterEach
+    void tearDown() {
+        for (Map<String, Object> row : seededVitals) {
+            List<String> columns = row.keySet().stream().filter(column -> !column.equals("id") && !column.equals("version")).toList();
+            List<Object> values = new ArrayList<>(columns.stream().map(row::get).toList());
+            values.add(row.get("id"));
+            jdbcTemplate.update("UPDATE device_vitals SET " + String.join(" = ?, ", columns) + " = ?, version = version + 1 WHERE id = ?",
+                    values.toArray());
+            deviceSnapshotStore.evict(new DeviceId(((Number) row.get("id")).shortValue()));
+        }
+        jdbcTemplate.update("DELETE FROM circuit WHERE device_id >= ?", FIRST_EXTRA_DEVICE_ID);
+        jdbcTemplate.update("DELETE FROM device_vitals WHERE id >= ?", FIRST_EXTRA_DEVICE_ID);
+        jdbcTemplate.update("DELETE FROM device WHERE id >= ?", FIRST_EXTRA_DEVICE_ID);
+        for (int id = FIRST_EXTRA_DEVICE_ID; id < FIRST_EXTRA_DEVICE_ID + EXTRA_DEVICE_COUNT; id++) {
+            deviceSnapshotStore.evict(new DeviceId((short) id));
+        }
+        entityManagerFactory.getCache().evictAll();
+        deviceVitalsReadModel.rebuild();
+    }
+
+    @Test
+    @DisplayName("ACK of eight circuits costs one select and one update")
+    void handleAckState_ConstantRoundTrips() {
+        DeviceId deviceId = insertDeviceWithCircuits(FIRST_EXTRA_DEVICE_ID, 8);
+        AckStateCommand ack = new AckStateCommand(deviceId, Collections.nCopies(8, CircuitState.ON));
+        // Warm the second-level cache
+        deviceApplicationService.handleDeviceCommand(ack);
+
+        StatementCounter.reset();
+        deviceApplicationService.handleDeviceCommand(ack);
+
+        assertThat(StatementCounter.getStatementCount())
+                .as("Only device_vitals should be selected").isEqualTo(1);
+        assertThat(StatementCounter.getBatchCount())
+                .as("All circuit states should be written by a single update").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Routine chunk costs one select and one batched update regardless of device count")
+    void runDeviceRoutine_ConstantRoundTripsPerChunk() {
+        insertAliveDevicesWithoutHeartbeat(EXTRA_DEVICE_COUNT);
+
+        StatementCounter.reset();
+        deviceRoutineApplicationService.runDeviceRoutine();
+
+        assertThat(StatementCounter.getStatementCount())
+                .as("Device ids and one chunk of devices should be selected").isEqualTo(2);
+        assertThat(StatementCounter.getBatchCount())
+                .as("State transitions of the chunk should be written in one batch").isEqualTo(1);
+    }
+
+    private DeviceId insertDeviceWithCircuits(int id, int circuitCount) {
+        jdbcTemplate.update("""
+                INSERT INTO device (id, name, keepalive_interval, config_interval, new_state_interval)
+                VALUES (?, ?, 20000, 5000, 5000)""", id, "Device #" + id);
+        jdbcTemplate.update("""
+                INSERT INTO device_vitals (id, state, desired_state, standby_timeout, heartbeat_interval,
+                                           desired_standby_timeout, desired_heartbeat_interval, circuit_count)
+                VALUES (?, 'ALIVE', 'DEAD', 80000, 20000, 60000, 30000, ?)""", id, circuitCount);
+        for (int bitIndex = 0; bitIndex < circuitCount; bitIndex++) {
+            jdbcTemplate.update("""
+                    INSERT INTO circuit (device_id, id, name, bit_index)
+                    VALUES (?, ?, ?, ?)""", id, bitIndex + 1, "Circuit " + (bitIndex + 1), bitIndex);
+        }
+        return new DeviceId((short) id);
+    }
+
+    private void insertAliveDevicesWithoutHeartbeat(int count) {
+        for (int id = FIRST_EXTRA_DEVICE_ID; id < FIRST_EXTRA_DEVICE_ID + count; id++) {
+            jdbcTemplate.update("""
+                    INSERT INTO device (id, name, keepalive_interval, config_interval, new_state_interval)
+                    VALUES (?, ?, 20000, 5000, 5000)""", id, "Device #" + id);
+            jdbcTemplate.update("""
+                    INSERT INTO device_vitals (id, state, desired_state, standby_timeout, heartbeat_interval,
+                                               desired_standby_timeout, desired_heartbeat_interval)
+                    VALUES (?, 'ALIVE', 'DEAD', 80000, 20000, 60000, 30000)""", id);
+        }
+    }
+}
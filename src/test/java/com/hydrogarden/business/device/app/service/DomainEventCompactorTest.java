@@ -0,0 +1,103 @@
+package com.hydrogarden.business.device.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.DeviceEventSummaryDE;
+import com.hydrogarden.business.device.core.event.KeepaliveSentDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import com.hydrogarden.business.device.core.event.RegisteredHeartbeatDE;
+import com.hydrogarden.common.HydrogardenTimeProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DomainEventCompactor Tests")
+class DomainEventCompactorTest {
+
+    private static final DeviceId DEVICE_1 = new DeviceId((short) 1);
+    private static final DeviceId DEVICE_2 = new DeviceId((short) 2);
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final LocalDateTime END = START.plusMinutes(1);
+
+    private final HydrogardenTimeProvider timeProvider = mock(HydrogardenTimeProvider.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DomainEventCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        when(timeProvider.getCurrentTime()).thenReturn(START, END, END.plusMinutes(1));
+        compactor = new DomainEventCompactor(timeProvider, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("High-frequency events are counted per device, other events pass through")
+    void compact_CountsHighFrequencyEvents() {
+        RegisteredDeviceStartDE start = new RegisteredDeviceStartDE(DEVICE_1, START);
+
+        List<HydrogardenDomainEvent> remaining = compactor.compact(List.of(
+                new KeepaliveSentDE(DEVICE_1, START),
+                start,
+                new KeepaliveSentDE(DEVICE_1, START),
+                new RegisteredHeartbeatDE(START, DEVICE_2, null, null)));
+
+        assertThat(remaining).containsExactly(start);
+
+        DeviceEventSummaryDE summary = compactor.drain().orElseThrow();
+        assertThat(summary.getWindowStart()).isEqualTo(START);
+        assertThat(summary.getTimestamp()).isEqualTo(END);
+        assertThat(summary.getCounts()).isEqualTo(Map.of(
+                DEVICE_1, Map.of("KeepaliveSentDE", 2L),
+                DEVICE_2, Map.of("RegisteredHeartbeatDE", 1L)));
+        assertThat(meterRegistry.counter("hydrogarden.events.compacted", "event", "KeepaliveSentDE").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Draining resets the counters and starts a new window")
+    void drain_ResetsCounters() {
+        compactor.compact(List.of(new KeepaliveSentDE(DEVICE_1, START)));
+
+        assertThat(compactor.drain()).isPresent();
+        assertThat(compactor.drain()).as("Nothing was counted since the last drain").isEmpty();
+    }
+
+    @Test
+    @DisplayName("Events counted while draining are never lost")
+    void drain_Concurrently_LosesNoEvents() throws InterruptedException {
+        int threads = 4;
+        int eventsPerThread = 10_000;
+        List<Thread> counting = IntStream.range(0, threads)
+                .mapToObj(i -> Thread.ofPlatform().start(() -> {
+                    for (int n = 0; n < eventsPerThread; n++) {
+                        compactor.compact(List.of(new KeepaliveSentDE(DEVICE_1, START)));
+                    }
+                }))
+                .toList();
+
+        long drained = 0;
+        while (counting.stream().anyMatch(Thread::isAlive)) {
+            drained += drainedKeepalives();
+        }
+        for (Thread thread : counting) {
+            thread.join();
+        }
+        drained += drainedKeepalives();
+
+        assertThat(drained).isEqualTo((long) threads * eventsPerThread);
+    }
+
+    private long drainedKeepalives() {
+        return compactor.drain()
+                .map(summary -> summary.getCounts().get(DEVICE_1).get("KeepaliveSentDE"))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hydrogarden.business.device.app.store;
+
+import com.hydrogarden.business.device.core.DeviceTestCases;
+import com.hydrogarden.business.device.core.commands.AckStateCommand;
+import com.hydrogarden.business.device.core.commands.DeviceContext;
+import com.hydrogarden.business.device.core.entity.CircuitId;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hydrogarden.business.device.core.DeviceTestCases.BASE_TIME;
+import static com.hydrogarden.business.device.core.DeviceTestCases.TEST_DEVICE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CircuitStateAckRegistry Tests")
+class CircuitStateAckRegistryTest {
+
+    private static final CircuitId FIRST_CIRCUIT = new CircuitId((short) 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CircuitStateAckRegistry registry = new CircuitStateAckRegistry(meterRegistry);
+
+    @Test
+    @DisplayName("Acknowledgement reporting the desired states completes the waiter")
+    void acknowledge_MatchingStates_Completes() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        CompletableFuture<DeviceSnapshot> result = awaitFirstCircuitOn(device);
+
+        DeviceSnapshot acknowledged = acknowledgeFirstCircuit(device, CircuitState.ON);
+        registry.acknowledge(acknowledged);
+
+        assertThat(result).isCompletedWithValue(acknowledged);
+        assertThat(meterRegistry.get("hydrogarden.circuit_ack.pending").gauge().value()).as("Pending waiters").isZero();
+    }
+
+    @Test
+    @DisplayName("Acknowledgement of other states keeps waiting")
+    void acknowledge_OtherStates_KeepsWaiting() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        CompletableFuture<DeviceSnapshot> result = awaitFirstCircuitOn(device);
+
+        registry.acknowledge(acknowledgeFirstCircuit(device, CircuitState.OFF));
+
+        assertThat(result).isNotDone();
+        assertThat(meterRegistry.get("hydrogarden.circuit_ack.pending").gauge().value()).as("Pending waiters").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cancelled waiters are removed and not completed")
+    void cancel_RemovesWaiter() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        CompletableFuture<DeviceSnapshot> result = awaitFirstCircuitOn(device);
+
+        result.cancel(false);
+        registry.acknowledge(acknowledgeFirstCircuit(device, CircuitState.ON));
+
+        assertThat(result).isCancelled();
+        assertThat(meterRegistry.get("hydrogarden.circuit_ack.pending").gauge().value()).as("Pending waiters").isZero();
+        assertThat(meterRegistry.get("hydrogarden.circuit_ack.acknowledged").counter().count()).as("Acknowledged").isZero();
+    }
+
+    @Test
+    @DisplayName("Acknowledgement committed elsewhere completes the waiter with the loaded snapshot")
+    void acknowledge_CommittedElsewhere_LoadsSnapshotOnce() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        CompletableFuture<DeviceSnapshot> first = awaitFirstCircuitOn(device);
+        CompletableFuture<DeviceSnapshot> second = awaitFirstCircuitOn(device);
+        DeviceSnapshot acknowledged = acknowledgeFirstCircuit(device, CircuitState.ON);
+        AtomicInteger loads = new AtomicInteger();
+
+        registry.acknowledge(TEST_DEVICE_ID, acknowledged.circuitStateMask().getStates(), () -> {
+            loads.incrementAndGet();
+            return acknowledged;
+        });
+
+        assertThat(first).isCompletedWithValue(acknowledged);
+        assertThat(second).isCompletedWithValue(acknowledged);
+        assertThat(loads).as("Snapshot loads").hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Acknowledgement committed elsewhere with other states loads nothing")
+    void acknowledge_CommittedElsewhere_OtherStates_DoesNotLoad() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        CompletableFuture<DeviceSnapshot> result = awaitFirstCircuitOn(device);
+        DeviceSnapshot acknowledged = acknowledgeFirstCircuit(device, CircuitState.OFF);
+
+        registry.acknowledge(TEST_DEVICE_ID, acknowledged.circuitStateMask().getStates(), () -> {
+            throw new AssertionError("Snapshot must not be loaded");
+        });
+
+        assertThat(result).isNotDone();
+    }
+
+    private CompletableFuture<DeviceSnapshot> awaitFirstCircuitOn(Device device) {
+        device.requestChangeCircuitStates(Map.of(FIRST_CIRCUIT, CircuitState.ON), new DeviceContext(BASE_TIME));
+        CompletableFuture<DeviceSnapshot> result = new CompletableFuture<>();
+        registry.register(TEST_DEVICE_ID, device.getCircuitBits(List.of(FIRST_CIRCUIT)),
+                device.getDeviceVitals().getCircuitStateMask().getDesiredStates(), result);
+        return result;
+    }
+
+    private static DeviceSnapshot acknowledgeFirstCircuit(Device device, CircuitState state) {
+        List<CircuitState> states = new ArrayList<>(Collections.nCopies(8, CircuitState.OFF));
+        states.set(0, state);
+        device.handleInboundDeviceCommand(new AckStateCommand(TEST_DEVICE_ID, states), new DeviceContext(BASE_TIME));
+        return device.toSnapshot(false);
+    }
+}
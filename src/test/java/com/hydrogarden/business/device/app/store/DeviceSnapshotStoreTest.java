@@ -0,0 +1,136 @@
+package com.hydrogarden.business.device.app.store;
+
+import com.hydrogarden.business.device.core.DeviceTestCases;
+import com.hydrogarden.business.device.core.commands.AckStateCommand;
+import com.hydrogarden.business.device.core.commands.DeviceContext;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.hydrogarden.business.device.core.DeviceTestCases.BASE_TIME;
+import static com.hydrogarden.business.device.core.DeviceTestCases.TEST_DEVICE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceSnapshotStore Tests")
+class DeviceSnapshotStoreTest {
+
+    private final DeviceSnapshotStore store = new DeviceSnapshotStore();
+
+    @Test
+    @DisplayName("Update without circuits is dropped when no circuit metadata is known")
+    void update_WithoutCircuits_UnknownDevice_NotStored() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+
+        store.update(device.toSnapshot(false));
+
+        assertThat(store.get(TEST_DEVICE_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Update without circuits reuses stored circuit metadata with new states")
+    void update_WithoutCircuits_MergesCircuitMetadata() {
+        Device device = DeviceTestCases.createState3_AliveAlive_UnsynchronizedCircuits();
+        store.seed(device.toSnapshot(true));
+
+        device.handleInboundDeviceCommand(
+                new AckStateCommand(TEST_DEVICE_ID, Collections.nCopies(8, CircuitState.ON)),
+                new DeviceContext(BASE_TIME));
+        store.update(device.toSnapshot(false));
+
+        DeviceSnapshot snapshot = store.get(TEST_DEVICE_ID).orElseThrow();
+        assertThat(snapshot.lastCommandReceiveTime()).isEqualTo(BASE_TIME);
+        assertThat(snapshot.circuits()).hasSize(8);
+        assertThat(snapshot.circuits().getFirst().name()).isEqualTo("Circuit 1");
+        assertThat(snapshot.circuits().getFirst().state()).isEqualTo(CircuitState.ON);
+        assertThat(snapshot.circuits().getFirst().desiredState()).isEqualTo(CircuitState.ON);
+    }
+
+    @Test
+    @DisplayName("Update without circuits keeps the stored name, which may come from a stale cached device row")
+    void update_WithoutCircuits_KeepsStoredName() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        store.seed(withVersion(device.toSnapshot(true), 1));
+
+        device.rename("Cached elsewhere");
+        store.update(withVersion(device.toSnapshot(false), 2));
+
+        assertThat(store.get(TEST_DEVICE_ID)).hasValueSatisfying(snapshot -> {
+            assertThat(snapshot.version()).isEqualTo(2);
+            assertThat(snapshot.name()).isEqualTo(DeviceTestCases.createState3_AliveAlive().getName());
+        });
+    }
+
+    @Test
+    @DisplayName("Seeding never replaces a snapshot written by a committed change")
+    void seed_DoesNotReplaceExisting() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        DeviceSnapshot committed = device.toSnapshot(true);
+        store.update(committed);
+
+        device.rename("Stale");
+        DeviceSnapshot returned = store.seed(device.toSnapshot(true));
+
+        assertThat(returned).isEqualTo(committed);
+        assertThat(store.get(TEST_DEVICE_ID)).contains(committed);
+    }
+
+    @Test
+    @DisplayName("Seeding refuses a snapshot older than a committed version whose snapshot could not be stored")
+    void seed_OlderThanKnownVersion_NotStored() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        store.update(withVersion(device.toSnapshot(false), 5));
+
+        DeviceSnapshot stale = withVersion(device.toSnapshot(true), 4);
+        DeviceSnapshot returned = store.seed(stale);
+
+        assertThat(returned).isEqualTo(stale);
+        assertThat(store.get(TEST_DEVICE_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Version never goes back on an out-of-order update")
+    void update_OlderVersion_KeepsNewerVersion() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+
+        store.update(withVersion(device.toSnapshot(true), 7));
+        store.update(withVersion(device.toSnapshot(true), 6));
+
+        assertThat(store.get(TEST_DEVICE_ID)).hasValueSatisfying(snapshot -> assertThat(snapshot.version()).isEqualTo(7));
+    }
+
+    @Test
+    @DisplayName("Change committed elsewhere drops an older snapshot and refuses an older reload")
+    void invalidate_NewerVersion_DropsStoredSnapshot() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        store.seed(withVersion(device.toSnapshot(true), 3));
+
+        store.invalidate(TEST_DEVICE_ID, 5);
+        assertThat(store.get(TEST_DEVICE_ID)).as("Snapshot older than the committed version").isEmpty();
+
+        store.seed(withVersion(device.toSnapshot(true), 4));
+        assertThat(store.get(TEST_DEVICE_ID)).as("Reload older than the committed version").isEmpty();
+
+        store.seed(withVersion(device.toSnapshot(true), 5));
+        assertThat(store.get(TEST_DEVICE_ID)).hasValueSatisfying(snapshot -> assertThat(snapshot.version()).isEqualTo(5));
+    }
+
+    @Test
+    @DisplayName("Change already stored is not dropped by its own broadcast")
+    void invalidate_SameVersion_KeepsStoredSnapshot() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        store.update(withVersion(device.toSnapshot(true), 5));
+
+        store.invalidate(TEST_DEVICE_ID, 5);
+
+        assertThat(store.get(TEST_DEVICE_ID)).isPresent();
+    }
+
+    private static DeviceSnapshot withVersion(DeviceSnapshot snapshot, long version) {
+        return new DeviceSnapshot(snapshot.id(), version, snapshot.name(), snapshot.state(), snapshot.desiredState(),
+                snapshot.lastKeepAliveSendTime(), snapshot.lastCommandReceiveTime(), snapshot.circuitStateMask(), snapshot.circuits());
+    }
+}
@@ -0,0 +1,175 @@
+package com.hydrogarden.business.device.app.stream;
+
+import com.hydrogarden.business.device.core.DeviceTestCases;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.hydrogarden.business.device.core.DeviceTestCases.TEST_DEVICE_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceVitalsBroadcaster Tests")
+class DeviceVitalsBroadcasterTest {
+
+    private static final String EPOCH = "e1";
+
+    /**
+     * Published after the events under test. Each subscriber's events are sent in order, so once the sentinel is sent
+     * every event queued before it has been sent too.
+     */
+    private static final long SENTINEL_VERSION = 99;
+    private static final String SENTINEL_NAME = "Sentinel";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Reconnecting client gets only the events after its Last-Event-ID")
+    void subscribe_WithLastEventId_ReplaysMissedEvents() throws InterruptedException {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(16, null);
+        broadcaster.publish(snapshot(1));
+        broadcaster.publish(snapshot(2));
+        broadcaster.publish(snapshot(3));
+
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), "e1-1", List.of(snapshot(3)));
+
+        assertThat(sentBeforeSentinel(broadcaster)).extracting(DeviceVitalsBroadcasterTest::eventId).containsExactly("e1-2", "e1-3");
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID issued by another instance or before a restart gets the current state")
+    void subscribe_WithForeignLastEventId_SendsCurrentState() throws InterruptedException {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(16, null);
+        broadcaster.publish(snapshot(1));
+        broadcaster.publish(snapshot(2));
+        broadcaster.publish(snapshot(3));
+
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), "e0-1", List.of(snapshot(3)));
+
+        assertThat(sentBeforeSentinel(broadcaster)).extracting(DeviceVitalsBroadcasterTest::eventId).containsExactly("e1-3");
+    }
+
+    @Test
+    @DisplayName("Change committed elsewhere is pulled only for streamed devices and unpublished versions")
+    void isBehind_OnlyForStreamedUnpublishedVersions() {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(16, null);
+        assertThat(broadcaster.isBehind(TEST_DEVICE_ID, 1)).as("Without subscribers").isFalse();
+
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), null, List.of());
+        broadcaster.publish(snapshot(2));
+
+        assertThat(broadcaster.isBehind(TEST_DEVICE_ID, 2)).as("Published version").isFalse();
+        assertThat(broadcaster.isBehind(TEST_DEVICE_ID, 3)).as("Newer version").isTrue();
+    }
+
+    @Test
+    @DisplayName("New client gets the current state first, then changes")
+    void subscribe_WithoutLastEventId_SendsCurrentState() throws InterruptedException {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(16, null);
+        broadcaster.publish(snapshot(1));
+
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), null, List.of(snapshot(1)));
+        broadcaster.publish(snapshot(2));
+        broadcaster.publish(snapshot(2));
+
+        assertThat(sentBeforeSentinel(broadcaster)).extracting(DeviceVitalsBroadcasterTest::eventId).containsExactly("e1-1", "e1-2");
+    }
+
+    @Test
+    @DisplayName("New client whose current state went stale before subscribing gets the version published meanwhile")
+    void subscribe_WithStaleCurrentState_SendsPublishedVersion() throws InterruptedException {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(16, null);
+        DeviceSnapshot stale = snapshot(1, "Stale");
+        broadcaster.publish(snapshot(2, "Published"));
+
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), null, List.of(stale));
+
+        assertThat(sentBeforeSentinel(broadcaster)).singleElement()
+                .satisfies(event -> assertThat(event).contains("Published").doesNotContain("Stale"));
+    }
+
+    @Test
+    @DisplayName("Subscriber that cannot keep up is evicted instead of buffering without bound")
+    void publish_SlowSubscriber_IsEvicted() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster(2, blocked);
+        broadcaster.subscribe(Set.of(TEST_DEVICE_ID), null, List.of());
+
+        for (long version = 1; version <= 10; version++) {
+            broadcaster.publish(snapshot(version));
+        }
+        blocked.countDown();
+
+        assertThat(meterRegistry.counter("hydrogarden.device_stream.evicted").count()).isEqualTo(1);
+    }
+
+    /**
+     * Publishes the sentinel and returns the events sent to the subscriber before it.
+     */
+    private static List<String> sentBeforeSentinel(RecordingBroadcaster broadcaster) throws InterruptedException {
+        broadcaster.publish(snapshot(SENTINEL_VERSION, SENTINEL_NAME));
+        assertThat(broadcaster.sentinelSent.await(5, TimeUnit.SECONDS)).as("Sentinel should be sent").isTrue();
+        return broadcaster.sent.subList(0, broadcaster.sent.size() - 1);
+    }
+
+    private static DeviceSnapshot snapshot(long version) {
+        return snapshot(version, DeviceTestCases.createState3_AliveAlive().getName());
+    }
+
+    private static DeviceSnapshot snapshot(long version, String name) {
+        DeviceSnapshot snapshot = DeviceTestCases.createState3_AliveAlive().toSnapshot(true);
+        return new DeviceSnapshot(snapshot.id(), version, name, snapshot.state(), snapshot.desiredState(),
+                snapshot.lastKeepAliveSendTime(), snapshot.lastCommandReceiveTime(), snapshot.circuitStateMask(), snapshot.circuits());
+    }
+
+    private static String eventId(String event) {
+        return event.lines()
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring(3))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private class RecordingBroadcaster extends DeviceVitalsBroadcaster {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sentinelSent = new CountDownLatch(1);
+        private final CountDownLatch blockSends;
+
+        RecordingBroadcaster(int queueCapacity, CountDownLatch blockSends) {
+            super(meterRegistry, queueCapacity, 16, 60_000, EPOCH);
+            this.blockSends = blockSends;
+        }
+
+        @Override
+        SseEmitter newEmitter(long timeoutMs) {
+            return new SseEmitter(timeoutMs) {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    if (blockSends != null) {
+                        try {
+                            blockSends.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                    String event = builder.build().stream()
+                            .map(part -> String.valueOf(part.getData()))
+                            .collect(Collectors.joining());
+                    sent.add(event);
+                    if (event.contains(SENTINEL_NAME)) {
+                        sentinelSent.countDown();
+                    }
+                }
+            };
+        }
+    }
+}
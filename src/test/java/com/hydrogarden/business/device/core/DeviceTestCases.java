@@ -26,6 +26,8 @@ public class DeviceTestCases {
     public static final Duration ALTERNATIVE_STANDBY_TIMEOUT = Duration.ofSeconds(45);
     public static final Duration ALTERNATIVE_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
 
+    public static final int DEFAULT_CIRCUIT_COUNT = 8;
+
     public static final DeviceId TEST_DEVICE_ID = new DeviceId((short) 1);
     public static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0, 0);
 
@@ -34,6 +36,13 @@ public class DeviceTestCases {
      * Device is dead and expected to be dead (timed out)
      */
     public static Device createState1_DeadDead() {
+        return createState1_DeadDead(DEFAULT_CIRCUIT_COUNT);
+    }
+
+    /**
+     * State 1 with the given number of synchronized circuits.
+     */
+    public static Device createState1_DeadDead(int circuitCount) {
         DeviceConfig config = createDefaultConfig();
         DeviceVitals vitals = createVitals(
                 DeviceState.DEAD,
@@ -45,7 +54,7 @@ public class DeviceTestCases {
                 null,
                 null
         );
-        return createDevice(vitals, null);
+        return createDevice(vitals, createDefaultCircuits(circuitCount));
     }
 
     /**
@@ -53,6 +62,13 @@ public class DeviceTestCases {
      * Device is dead but expected to be alive (never sent ACK)
      */
     public static Device createState2_DeadAlive() {
+        return createState2_DeadAlive(DEFAULT_CIRCUIT_COUNT);
+    }
+
+    /**
+     * State 2 with the given number of synchronized circuits.
+     */
+    public static Device createState2_DeadAlive(int circuitCount) {
         DeviceConfig config = createDefaultConfig();
         DeviceVitals vitals = createVitals(
                 DeviceState.DEAD,
@@ -64,7 +80,7 @@ public class DeviceTestCases {
                 null,
                 null
         );
-        return createDevice(vitals, null);
+        return createDevice(vitals, createDefaultCircuits(circuitCount));
     }
 
     /**
@@ -72,6 +88,13 @@ public class DeviceTestCases {
      * Device is alive and expected to be alive (healthy operation)
      */
     public static Device createState3_AliveAlive() {
+        return createState3_AliveAlive(DEFAULT_CIRCUIT_COUNT);
+    }
+
+    /**
+     * State 3 with the given number of synchronized circuits.
+     */
+    public static Device createState3_AliveAlive(int circuitCount) {
         DeviceConfig config = createDefaultConfig();
         DeviceVitals vitals = createVitals(
                 DeviceState.ALIVE,
@@ -83,7 +106,7 @@ public class DeviceTestCases {
                 BASE_TIME.minus(Duration.ofSeconds(15)),
                 BASE_TIME.minus(Duration.ofSeconds(3))
         );
-        return createDevice(vitals, null);
+        return createDevice(vitals, createDefaultCircuits(circuitCount));
     }
 
     /**
@@ -102,16 +125,10 @@ public class DeviceTestCases {
                 BASE_TIME.minus(Duration.ofSeconds(3))
         );
 
-        List<Circuit> circuits = createDefaultCircuits();
-        circuits.set(0, new Circuit(
-                new CircuitId((short) 1),
-                new CircuitState(false),
-                "Circuit 1",
-                new CircuitState(true),
-                null
-        ));
+        Device device = createDevice(vitals, null);
+        vitals.setCircuitStateMask(vitals.getCircuitStateMask().withDesiredState(0, new CircuitState(true)));
 
-        return createDevice(vitals, circuits);
+        return device;
     }
 
     /**
@@ -205,6 +222,13 @@ public class DeviceTestCases {
      * Device is alive but expected to be dead (being disabled)
      */
     public static Device createState4_AliveDead() {
+        return createState4_AliveDead(DEFAULT_CIRCUIT_COUNT);
+    }
+
+    /**
+     * State 4 with the given number of synchronized circuits.
+     */
+    public static Device createState4_AliveDead(int circuitCount) {
         DeviceConfig config = createDefaultConfig();
         DeviceVitals vitals = createVitals(
                 DeviceState.ALIVE,
@@ -216,7 +240,7 @@ public class DeviceTestCases {
                 null,
                 null
         );
-        return createDevice(vitals, null);
+        return createDevice(vitals, createDefaultCircuits(circuitCount));
     }
 
     /**
@@ -231,6 +255,7 @@ public class DeviceTestCases {
         Device device = new Device(
                 TEST_DEVICE_ID,
                 "Test Device",
+                0L,
                 circuits,
                 DEFAULT_KEEPALIVE_INTERVAL,
                 DEFAULT_CONFIG_INTERVAL,
@@ -240,6 +265,7 @@ public class DeviceTestCases {
         );
 
         vitals.setDevice(device);
+        vitals.setCircuitStateMask(CircuitStateMask.allOff(circuits.size()));
         setCircuitDeviceUsingReflection(circuits, device);
 
         return device;
@@ -260,14 +286,16 @@ public class DeviceTestCases {
     ) {
         return new DeviceVitals(
                 TEST_DEVICE_ID,
+                0L,
                 state,
                 desiredState,
-                lastKeepAliveSendTime,
-                lastCommandReceiveTime,
+                TimeUtils.toEpochMillis(lastKeepAliveSendTime),
+                TimeUtils.toEpochMillis(lastCommandReceiveTime),
                 currentConfig,
                 desiredConfig,
-                lastConfigSendTime,
-                lastNewStateSendTime,
+                TimeUtils.toEpochMillis(lastConfigSendTime),
+                TimeUtils.toEpochMillis(lastNewStateSendTime),
+                null,
                 null
         );
     }
@@ -290,13 +318,19 @@ public class DeviceTestCases {
      * Creates default circuits for testing (all OFF and synchronized).
      */
     private static List<Circuit> createDefaultCircuits() {
+        return createDefaultCircuits(DEFAULT_CIRCUIT_COUNT);
+    }
+
+    /**
+     * Creates the given number of circuits for testing (all OFF and synchronized).
+     */
+    private static List<Circuit> createDefaultCircuits(int circuitCount) {
         List<Circuit> circuits = new ArrayList<>();
-        for (short i = 1; i <= 8; i++) {
+        for (short i = 1; i <= circuitCount; i++) {
             circuits.add(new Circuit(
-                    new CircuitId(i),
-                    new CircuitState(false),
+                    new CircuitId(TEST_DEVICE_ID, i),
                     "Circuit " + i,
-                    new CircuitState(false),
+                    (short) (i - 1),
                     null
             ));
         }
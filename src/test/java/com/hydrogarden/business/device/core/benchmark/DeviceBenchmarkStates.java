@@ -0,0 +1,26 @@
+package com.hydrogarden.business.device.core.benchmark;
+
+import com.hydrogarden.business.device.core.DeviceTestCases;
+import com.hydrogarden.business.device.core.entity.Device;
+
+import java.util.function.IntFunction;
+
+/**
+ * The four valid device states from {@link DeviceTestCases}, parameterised by circuit count.
+ */
+public enum DeviceBenchmarkStates {
+    DEAD_DEAD(DeviceTestCases::createState1_DeadDead),
+    DEAD_ALIVE(DeviceTestCases::createState2_DeadAlive),
+    ALIVE_ALIVE(DeviceTestCases::createState3_AliveAlive),
+    ALIVE_DEAD(DeviceTestCases::createState4_AliveDead);
+
+    private final IntFunction<Device> factory;
+
+    DeviceBenchmarkStates(IntFunction<Device> factory) {
+        this.factory = factory;
+    }
+
+    public Device create(int circuitCount) {
+        return factory.apply(circuitCount);
+    }
+}
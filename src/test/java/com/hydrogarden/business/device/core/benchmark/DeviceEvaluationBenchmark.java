@@ -0,0 +1,72 @@
+package com.hydrogarden.business.device.core.benchmark;
+
+import com.hydrogarden.business.device.core.commands.AckStateCommand;
+import com.hydrogarden.business.device.core.commands.DeviceContext;
+import com.hydrogarden.business.device.core.commands.HeartbeatCommand;
+import com.hydrogarden.business.device.core.commands.OutboundDeviceCommand;
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.Device;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hydrogarden.business.device.core.DeviceTestCases.BASE_TIME;
+import static com.hydrogarden.business.device.core.DeviceTestCases.TEST_DEVICE_ID;
+
+/**
+ * Throughput of a single {@link Device} evaluation in each of the four device states.
+ * <p>
+ * The device is evaluated repeatedly at the same instant, so after the first invocation it sits in its
+ * steady state, which is what the routine sees for the vast majority of ticks. Run with {@code -prof gc}
+ * (the default in the {@code benchmark} profile) to get bytes allocated per evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceEvaluationBenchmark {
+
+    @Param({"DEAD_DEAD", "DEAD_ALIVE", "ALIVE_ALIVE", "ALIVE_DEAD"})
+    public DeviceBenchmarkStates state;
+
+    @Param({"1", "8", "64"})
+    public int circuitCount;
+
+    private Device device;
+    private DeviceContext deviceContext;
+    private HeartbeatCommand heartbeatCommand;
+    private AckStateCommand ackStateCommand;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        device = state.create(circuitCount);
+        deviceContext = new DeviceContext(BASE_TIME);
+        heartbeatCommand = new HeartbeatCommand(TEST_DEVICE_ID);
+        ackStateCommand = new AckStateCommand(TEST_DEVICE_ID, Collections.nCopies(circuitCount, CircuitState.OFF));
+    }
+
+    @Benchmark
+    public List<OutboundDeviceCommand> evaluateCurrentStateAndCommand() {
+        List<OutboundDeviceCommand> commands = device.evaluateCurrentStateAndCommand(deviceContext);
+        device.clearDomainEvents();
+        return commands;
+    }
+
+    @Benchmark
+    public List<OutboundDeviceCommand> handleHeartbeat() {
+        List<OutboundDeviceCommand> commands = device.handleInboundDeviceCommand(heartbeatCommand, deviceContext);
+        device.clearDomainEvents();
+        return commands;
+    }
+
+    @Benchmark
+    public List<OutboundDeviceCommand> handleAckState() {
+        List<OutboundDeviceCommand> commands = device.handleInboundDeviceCommand(ackStateCommand, deviceContext);
+        device.clearDomainEvents();
+        return commands;
+    }
+}
@@ -0,0 +1,60 @@
+package com.hydrogarden.business.device.core.benchmark;
+
+import com.hydrogarden.business.device.core.commands.DeviceContext;
+import com.hydrogarden.business.device.core.entity.Device;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.hydrogarden.business.device.core.DeviceTestCases.BASE_TIME;
+
+/**
+ * Simulates one device routine tick over an in-memory fleet: every device is evaluated once,
+ * the way {@code DeviceRoutineApplicationServiceImpl.runDeviceRoutine} does it, minus persistence
+ * and the broker.
+ * <p>
+ * The fleet starts as an even mix of the four device states. Each invocation advances the clock by one
+ * routine period, so timing checks run against a moving clock rather than a frozen one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FleetRoutineTickBenchmark {
+
+    private static final Duration ROUTINE_PERIOD = Duration.ofSeconds(5);
+
+    @Param({"10000", "100000"})
+    public int fleetSize;
+
+    @Param({"8"})
+    public int circuitCount;
+
+    private List<Device> fleet;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DeviceBenchmarkStates[] states = DeviceBenchmarkStates.values();
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(states[i % states.length].create(circuitCount));
+        }
+        tick = 0;
+    }
+
+    @Benchmark
+    public void routineTick(Blackhole blackhole) {
+        DeviceContext deviceContext = new DeviceContext(BASE_TIME.plus(ROUTINE_PERIOD.multipliedBy(tick++)));
+        for (Device device : fleet) {
+            blackhole.consume(device.evaluateCurrentStateAndCommand(deviceContext));
+            device.clearDomainEvents();
+        }
+    }
+}
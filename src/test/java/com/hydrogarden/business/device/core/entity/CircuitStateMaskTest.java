@@ -0,0 +1,69 @@
+package com.hydrogarden.business.device.core.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CircuitStateMask Tests")
+class CircuitStateMaskTest {
+
+    @Test
+    @DisplayName("allOff() creates a synchronized mask with every circuit OFF")
+    void allOff_AllCircuitsOff() {
+        CircuitStateMask mask = CircuitStateMask.allOff(8);
+
+        assertThat(mask.isUnsynchronised()).isFalse();
+        assertThat(mask.getDesiredStateList())
+                .hasSize(8)
+                .allMatch(CircuitState.OFF::equals);
+    }
+
+    @Test
+    @DisplayName("withDesiredState() sets and clears a single bit")
+    void withDesiredState_SetsAndClearsSingleBit() {
+        CircuitStateMask mask = CircuitStateMask.allOff(8).withDesiredState(2, CircuitState.ON);
+
+        assertThat(mask.getDesiredState(2)).isEqualTo(CircuitState.ON);
+        assertThat(mask.getState(2)).isEqualTo(CircuitState.OFF);
+        assertThat(mask.isUnsynchronised(2)).isTrue();
+        assertThat(mask.isUnsynchronised(1)).isFalse();
+
+        CircuitStateMask cleared = mask.withDesiredState(2, CircuitState.OFF);
+        assertThat(cleared).isEqualTo(CircuitStateMask.allOff(8));
+    }
+
+    @Test
+    @DisplayName("withStates() ignores payload padding beyond the circuit count")
+    void withStates_IgnoresPadding() {
+        CircuitStateMask mask = CircuitStateMask.allOff(3)
+                .withDesiredState(0, CircuitState.ON)
+                .withStates(List.of(CircuitState.ON, CircuitState.OFF, CircuitState.OFF,
+                        CircuitState.ON, CircuitState.ON, CircuitState.ON, CircuitState.ON, CircuitState.ON));
+
+        assertThat(mask.getStates()).isEqualTo(1L);
+        assertThat(mask.isUnsynchronised()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Highest supported circuit uses the sign bit without losing state")
+    void withDesiredState_HighestCircuit() {
+        CircuitStateMask mask = CircuitStateMask.allOff(CircuitStateMask.MAX_CIRCUITS)
+                .withDesiredState(CircuitStateMask.MAX_CIRCUITS - 1, CircuitState.ON);
+
+        assertThat(mask.getDesiredState(CircuitStateMask.MAX_CIRCUITS - 1)).isEqualTo(CircuitState.ON);
+        assertThat(mask.getDesiredState(0)).isEqualTo(CircuitState.OFF);
+    }
+
+    @Test
+    @DisplayName("Out of range circuit index is rejected")
+    void getState_OutOfRange_Throws() {
+        CircuitStateMask mask = CircuitStateMask.allOff(8);
+
+        assertThatThrownBy(() -> mask.getState(8)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> CircuitStateMask.allOff(65)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
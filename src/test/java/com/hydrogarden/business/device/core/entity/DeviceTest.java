@@ -8,7 +8,9 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.hydrogarden.business.device.core.DeviceTestCases.*;
 import static org.assertj.core.api.Assertions.*;
@@ -310,6 +312,9 @@ class DeviceTest {
         assertThat(newStateCommand.getStates().get(1))
                 .as("Second circuit desired state should be OFF (false)")
                 .isEqualTo(new CircuitState(false));
+        assertThat(device.getDomainEvents())
+                .as("Resending unchanged desired states should not be recorded")
+                .noneMatch(NewStateSentDE.class::isInstance);
     }
 
     @Test
@@ -525,6 +530,31 @@ class DeviceTest {
                 .isFalse();
     }
 
+    @Test
+    @DisplayName("AckStateCommand that changes circuit states raises RegisteredDeviceStateChangeDE with old and new states")
+    void handleInboundDeviceCommand_AckStateCommand_RaisesStateChangeEvent() {
+        Device device = DeviceTestCases.createState3_AliveAlive_UnsynchronizedCircuits();
+        List<CircuitState> previousStates = device.getDeviceVitals().getCircuitStateMask().getStateList();
+        List<CircuitState> acknowledgedStates = List.of(
+                CircuitState.ON, CircuitState.OFF, CircuitState.OFF, CircuitState.OFF,
+                CircuitState.OFF, CircuitState.OFF, CircuitState.OFF, CircuitState.OFF
+        );
+        DeviceContext context = new DeviceContext(BASE_TIME);
+
+        device.handleInboundDeviceCommand(new AckStateCommand(TEST_DEVICE_ID, acknowledgedStates), context);
+
+        assertThat(device.getDomainEvents())
+                .as("State change should be recorded")
+                .filteredOn(RegisteredDeviceStateChangeDE.class::isInstance)
+                .singleElement()
+                .satisfies(e -> {
+                    RegisteredDeviceStateChangeDE event = (RegisteredDeviceStateChangeDE) e;
+                    assertThat(event.getOldState()).isEqualTo(previousStates);
+                    assertThat(event.getNewState()).isEqualTo(acknowledgedStates);
+                    assertThat(event.getTimestamp()).isEqualTo(BASE_TIME);
+                });
+    }
+
     @Test
     @DisplayName("AckConfigCommand on State 1 (DEAD/DEAD): device transitions to ALIVE and updates config")
     void handleInboundDeviceCommand_AckConfigCommand_State1_DeadDead_TransitionsAndUpdatesConfig() {
@@ -575,6 +605,11 @@ class DeviceTest {
                 .as("Device config should be updated to new values")
                 .isEqualTo(new DeviceConfig(Duration.ofSeconds(45), Duration.ofSeconds(15)))
                 .isNotEqualTo(previousConfig);
+        assertThat(device.getDomainEvents())
+                .as("Config change should be recorded")
+                .filteredOn(RegisteredDeviceConfigChangeDE.class::isInstance)
+                .singleElement()
+                .satisfies(e -> assertThat(((RegisteredDeviceConfigChangeDE) e).getOldConfig()).isEqualTo(previousConfig));
     }
 
     @Test
@@ -624,7 +659,7 @@ class DeviceTest {
     void enable_State1_DeadDead() {
         Device device = DeviceTestCases.createState1_DeadDead();
 
-        OutboundDeviceCommand command = device.enable();
+        OutboundDeviceCommand command = device.enable(new DeviceContext(BASE_TIME));
 
         assertThat(device.getDeviceVitals().getDesiredState())
                 .as("Desired state should be set to ALIVE")
@@ -645,7 +680,7 @@ class DeviceTest {
     void enable_State2_DeadAlive() {
         Device device = DeviceTestCases.createState2_DeadAlive();
 
-        OutboundDeviceCommand command = device.enable();
+        OutboundDeviceCommand command = device.enable(new DeviceContext(BASE_TIME));
 
         assertThat(device.getDeviceVitals().getDesiredState())
                 .as("Desired state should remain ALIVE (idempotent)")
@@ -660,7 +695,7 @@ class DeviceTest {
     void enable_State3_AliveAlive() {
         Device device = DeviceTestCases.createState3_AliveAlive();
 
-        OutboundDeviceCommand command = device.enable();
+        OutboundDeviceCommand command = device.enable(new DeviceContext(BASE_TIME));
 
         assertThat(device.getDeviceVitals().getDesiredState())
                 .as("Desired state should remain ALIVE (idempotent)")
@@ -675,7 +710,7 @@ class DeviceTest {
     void enable_State4_AliveDead() {
         Device device = DeviceTestCases.createState4_AliveDead();
 
-        OutboundDeviceCommand command = device.enable();
+        OutboundDeviceCommand command = device.enable(new DeviceContext(BASE_TIME));
 
         assertThat(device.getDeviceVitals().getDesiredState())
                 .as("Desired state should change from DEAD to ALIVE")
@@ -686,6 +721,10 @@ class DeviceTest {
         assertThat(command)
                 .as("ConfigCommand should be returned")
                 .isInstanceOf(ConfigCommand.class);
+        assertThat(device.getDomainEvents())
+                .as("Sending config on enable should be recorded")
+                .singleElement()
+                .isInstanceOf(ConfigSentDE.class);
     }
 
     @Test
@@ -768,7 +807,7 @@ class DeviceTest {
         Device device = DeviceTestCases.createState1_DeadDead();
         CircuitId circuitId = new CircuitId((short) 1);
 
-        assertThatThrownBy(() -> device.requestChangeCircuitState(circuitId, new CircuitState(true)))
+        assertThatThrownBy(() -> device.requestChangeCircuitState(circuitId, new CircuitState(true), new DeviceContext(BASE_TIME)))
                 .as("Cannot change circuit state of dead device")
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Cannot change circuit state of a dead device");
@@ -780,7 +819,7 @@ class DeviceTest {
         Device device = DeviceTestCases.createState2_DeadAlive();
         CircuitId circuitId = new CircuitId((short) 1);
 
-        assertThatThrownBy(() -> device.requestChangeCircuitState(circuitId, new CircuitState(true)))
+        assertThatThrownBy(() -> device.requestChangeCircuitState(circuitId, new CircuitState(true), new DeviceContext(BASE_TIME)))
                 .as("Cannot change circuit state when actual state is DEAD even if desired is ALIVE")
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Cannot change circuit state of a dead device");
@@ -793,7 +832,7 @@ class DeviceTest {
         CircuitId circuitId = new CircuitId((short) 1);
         CircuitState previousDesiredState = device.getCircuits().getFirst().getDesiredState();
 
-        OutboundDeviceCommand command = device.requestChangeCircuitState(circuitId, new CircuitState(true));
+        OutboundDeviceCommand command = device.requestChangeCircuitState(circuitId, new CircuitState(true), new DeviceContext(BASE_TIME));
 
         assertThat(device.getCircuits().getFirst().getDesiredState())
                 .as("First circuit desired state should be updated to ON")
@@ -825,7 +864,7 @@ class DeviceTest {
         Device device = DeviceTestCases.createState3_AliveAlive();
         CircuitId invalidCircuitId = new CircuitId((short) 99);
 
-        assertThatThrownBy(() -> device.requestChangeCircuitState(invalidCircuitId, new CircuitState(true)))
+        assertThatThrownBy(() -> device.requestChangeCircuitState(invalidCircuitId, new CircuitState(true), new DeviceContext(BASE_TIME)))
                 .as("Requesting change for non-existent circuit should throw exception")
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Circuit 99 not found");
@@ -837,7 +876,7 @@ class DeviceTest {
         Device device = DeviceTestCases.createState4_AliveDead();
         CircuitId circuitId = new CircuitId((short) 1);
 
-        OutboundDeviceCommand command = device.requestChangeCircuitState(circuitId, new CircuitState(true));
+        OutboundDeviceCommand command = device.requestChangeCircuitState(circuitId, new CircuitState(true), new DeviceContext(BASE_TIME));
 
         assertThat(device.getCircuits().getFirst().getDesiredState())
                 .as("Circuit desired state should be updated even though device desired state is DEAD")
@@ -938,4 +977,67 @@ class DeviceTest {
                 .as("Returned list should be unmodifiable to protect aggregate")
                 .isInstanceOf(UnsupportedOperationException.class);
     }
+
+    @Test
+    @DisplayName("requestChangeCircuitStates() on State 3 (ALIVE/ALIVE): applies all changes and returns a single NewStateCommand")
+    void requestChangeCircuitStates_State3_AliveAlive_Success() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        Map<CircuitId, CircuitState> changes = Map.of(
+                new CircuitId((short) 1), CircuitState.ON,
+                new CircuitId((short) 3), CircuitState.ON,
+                new CircuitId((short) 8), CircuitState.ON
+        );
+
+        OutboundDeviceCommand command = device.requestChangeCircuitStates(changes, new DeviceContext(BASE_TIME));
+
+        assertThat(command)
+                .as("requestChangeCircuitStates should return NewStateCommand")
+                .isInstanceOf(NewStateCommand.class);
+        assertThat(((NewStateCommand) command).getStates())
+                .as("NewStateCommand should contain desired states of all circuits")
+                .containsExactly(CircuitState.ON, CircuitState.OFF, CircuitState.ON, CircuitState.OFF,
+                        CircuitState.OFF, CircuitState.OFF, CircuitState.OFF, CircuitState.ON);
+        assertThat(device.getCircuits())
+                .as("Only requested circuits should become unsynchronized")
+                .filteredOn(Circuit::isUnsynchronised)
+                .extracting(c -> c.getId().getId())
+                .containsExactlyInAnyOrder((short) 1, (short) 3, (short) 8);
+        assertThat(device.getDomainEvents())
+                .as("Changed desired states should be recorded once")
+                .filteredOn(NewStateSentDE.class::isInstance)
+                .singleElement()
+                .satisfies(e -> assertThat(((NewStateSentDE) e).getNewState()).isEqualTo(((NewStateCommand) command).getStates()));
+    }
+
+    @Test
+    @DisplayName("requestChangeCircuitStates() with already desired states: raises no NewStateSentDE")
+    void requestChangeCircuitStates_UnchangedDesiredStates_RaisesNoEvent() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        Map<CircuitId, CircuitState> changes = Map.of(new CircuitId((short) 1), CircuitState.ON);
+        device.requestChangeCircuitStates(changes, new DeviceContext(BASE_TIME));
+        device.clearDomainEvents();
+
+        device.requestChangeCircuitStates(changes, new DeviceContext(BASE_TIME));
+
+        assertThat(device.getDomainEvents())
+                .as("Requesting the same desired states again should not be recorded")
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("requestChangeCircuitStates() with one unknown circuit: throws and leaves all circuits unchanged")
+    void requestChangeCircuitStates_State3_AliveAlive_UnknownCircuit_NothingApplied() {
+        Device device = DeviceTestCases.createState3_AliveAlive();
+        Map<CircuitId, CircuitState> changes = new LinkedHashMap<>();
+        changes.put(new CircuitId((short) 1), CircuitState.ON);
+        changes.put(new CircuitId((short) 99), CircuitState.ON);
+
+        assertThatThrownBy(() -> device.requestChangeCircuitStates(changes, new DeviceContext(BASE_TIME)))
+                .as("Requesting change for non-existent circuit should throw exception")
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Circuit 99 not found");
+        assertThat(device.getCircuits())
+                .as("No circuit should be changed when any requested circuit is unknown")
+                .noneMatch(Circuit::isUnsynchronised);
+    }
 }
@@ -0,0 +1,54 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.fleet.FleetDeviceVitals;
+import com.hydrogarden.business.device.core.fleet.FleetVitalsField;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceFleetQueryRepository Tests")
+class DeviceFleetQueryRepositoryTest extends HydrogardenIntegrationTest {
+
+    private static final String OWNER_ID = "user_sample_owner_id";
+
+    @Autowired
+    private DeviceFleetQueryRepository deviceFleetQueryRepository;
+
+    @Test
+    @DisplayName("All fields include the owner's devices with their circuits ordered by bit index")
+    void findPage_AllFields() {
+        List<FleetDeviceVitals> page = deviceFleetQueryRepository.findPage(OWNER_ID, Short.MIN_VALUE, 10, EnumSet.allOf(FleetVitalsField.class));
+
+        assertThat(page).singleElement().satisfies(device -> {
+            assertThat(device.id()).isEqualTo((short) 1);
+            assertThat(device.desiredState()).isNotNull();
+            assertThat(device.circuits()).hasSize(8);
+        });
+    }
+
+    @Test
+    @DisplayName("Fields that were not requested are left out")
+    void findPage_StateOnly() {
+        List<FleetDeviceVitals> page = deviceFleetQueryRepository.findPage(OWNER_ID, Short.MIN_VALUE, 10, EnumSet.of(FleetVitalsField.STATE));
+
+        assertThat(page).singleElement().satisfies(device -> {
+            assertThat(device.desiredState()).isIn((Object[]) DeviceState.values());
+            assertThat(device.lastKeepAliveSendTime()).isNull();
+            assertThat(device.circuits()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Pages continue after the given device id and exclude other owners' devices")
+    void findPage_Keyset() {
+        assertThat(deviceFleetQueryRepository.findPage(OWNER_ID, (short) 1, 10, EnumSet.allOf(FleetVitalsField.class))).isEmpty();
+        assertThat(deviceFleetQueryRepository.findPage("another_owner", Short.MIN_VALUE, 10, EnumSet.allOf(FleetVitalsField.class))).isEmpty();
+    }
+}
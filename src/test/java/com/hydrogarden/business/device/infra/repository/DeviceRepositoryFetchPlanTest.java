@@ -0,0 +1,71 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.Circuit;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import com.hydrogarden.test.utils.StatementCounter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceRepository fetch plan Tests")
+class DeviceRepositoryFetchPlanTest extends HydrogardenIntegrationTest {
+
+    private static final DeviceId SEEDED_DEVICE_ID = new DeviceId((short) 1);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Vitals fetch plan loads device and vitals in one statement")
+    void findWithVitalsById_SingleStatement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            StatementCounter.reset();
+
+            Device device = deviceRepository.findWithVitalsById(SEEDED_DEVICE_ID).orElseThrow();
+            device.getDeviceVitals().getState();
+            device.getDeviceVitals().getCircuitStateMask().getDesiredStateList();
+
+            assertThat(StatementCounter.getRoundTripCount())
+                    .as("Heartbeat path should need a single select").isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Vitals and circuits fetch plan loads circuits with their states in one statement")
+    void findWithVitalsAndCircuitsById_SingleStatement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            StatementCounter.reset();
+
+            Device device = deviceRepository.findWithVitalsAndCircuitsById(SEEDED_DEVICE_ID).orElseThrow();
+            List<Circuit> circuits = device.getCircuits();
+            circuits.forEach(Circuit::getState);
+
+            assertThat(circuits).hasSize(8);
+            assertThat(StatementCounter.getRoundTripCount())
+                    .as("Circuit state change path should need a single select").isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Routine lists device ids without loading devices")
+    void findAllIds_SingleStatement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            StatementCounter.reset();
+
+            List<DeviceId> ids = deviceRepository.findAllIds();
+
+            assertThat(ids).contains(SEEDED_DEVICE_ID);
+            assertThat(StatementCounter.getRoundTripCount()).isEqualTo(1);
+        });
+    }
+}
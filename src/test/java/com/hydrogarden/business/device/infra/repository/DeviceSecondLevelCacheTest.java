@@ -0,0 +1,81 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.Circuit;
+import com.hydrogarden.business.device.core.entity.Device;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import com.hydrogarden.test.utils.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Device second-level cache Tests")
+class DeviceSecondLevelCacheTest extends HydrogardenIntegrationTest {
+
+    private static final DeviceId SEEDED_DEVICE_ID = new DeviceId((short) 1);
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        transactionTemplate.executeWithoutResult(status -> loadDeviceWithCircuits());
+    }
+
+    @Test
+    @DisplayName("Warm cache leaves only the vitals select on the inbound path")
+    void findById_WarmCache_OnlyVitalsSelected() {
+        transactionTemplate.executeWithoutResult(status -> {
+            StatementCounter.reset();
+
+            loadDeviceWithCircuits();
+
+            assertThat(StatementCounter.getRoundTripCount())
+                    .as("Device, circuits and circuit names should come from the cache").isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Rename through the session is visible to the next transaction")
+    void rename_UpdatesCachedDevice() {
+        String originalName = transactionTemplate.execute(status -> {
+            Device device = deviceRepository.findById(SEEDED_DEVICE_ID).orElseThrow();
+            String name = device.getName();
+            device.rename("Renamed device");
+            return name;
+        });
+
+        try {
+            String cachedName = transactionTemplate.execute(status -> {
+                StatementCounter.reset();
+                String name = deviceRepository.findById(SEEDED_DEVICE_ID).orElseThrow().getName();
+                assertThat(StatementCounter.getRoundTripCount())
+                        .as("Updated device should be served from the cache").isZero();
+                return name;
+            });
+
+            assertThat(cachedName).isEqualTo("Renamed device");
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    deviceRepository.findById(SEEDED_DEVICE_ID).orElseThrow().rename(originalName));
+        }
+    }
+
+    private void loadDeviceWithCircuits() {
+        Device device = deviceRepository.findById(SEEDED_DEVICE_ID).orElseThrow();
+        device.getDeviceVitals().getState();
+        device.getCircuits().forEach(Circuit::getName);
+    }
+}
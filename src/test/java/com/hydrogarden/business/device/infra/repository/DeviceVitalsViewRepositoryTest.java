@@ -0,0 +1,98 @@
+package com.hydrogarden.business.device.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.snapshot.CircuitSnapshot;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceVitalsViewRepository Tests")
+class DeviceVitalsViewRepositoryTest extends HydrogardenIntegrationTest {
+
+    private static final DeviceId DEVICE_ID = new DeviceId((short) 1);
+    private static final short SECOND_DEVICE_ID = 101;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private DeviceVitalsViewRepository deviceVitalsViewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreReadModel() {
+        jdbcTemplate.update("DELETE FROM device_vitals_view");
+        deviceVitalsViewRepository.rebuild(LocalDateTime.now(), BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Rebuild projects every device with its circuits ordered by bit index")
+    void rebuild_ProjectsDevices() {
+        jdbcTemplate.update("DELETE FROM device_vitals_view");
+
+        int devices = deviceVitalsViewRepository.rebuild(LocalDateTime.now(), BATCH_SIZE);
+
+        assertThat(devices).as("Projected devices").isEqualTo(1);
+        assertThat(deviceVitalsViewRepository.findById(DEVICE_ID)).hasValueSatisfying(snapshot -> {
+            assertThat(snapshot.name()).isEqualTo("Device #1");
+            assertThat(snapshot.circuits()).hasSize(8);
+            assertThat(snapshot.circuits()).extracting(CircuitSnapshot::bitIndex).isSorted();
+        });
+    }
+
+    @Test
+    @DisplayName("Rebuild in batches smaller than the fleet projects every device")
+    void rebuild_InBatches_ProjectsEveryDevice() {
+        jdbcTemplate.update("""
+                INSERT INTO device (id, name, keepalive_interval, config_interval, new_state_interval)
+                VALUES (?, 'Device #101', 20000, 5000, 5000)""", SECOND_DEVICE_ID);
+        jdbcTemplate.update("""
+                INSERT INTO device_vitals (id, state, desired_state, standby_timeout, heartbeat_interval,
+                                           desired_standby_timeout, desired_heartbeat_interval)
+                VALUES (?, 'ALIVE', 'ALIVE', 80000, 20000, 60000, 30000)""", SECOND_DEVICE_ID);
+        jdbcTemplate.update("DELETE FROM device_vitals_view");
+
+        try {
+            int devices = deviceVitalsViewRepository.rebuild(LocalDateTime.now(), 1);
+
+            assertThat(devices).as("Projected devices").isEqualTo(2);
+            assertThat(deviceVitalsViewRepository.findById(new DeviceId(SECOND_DEVICE_ID))).hasValueSatisfying(snapshot ->
+                    assertThat(snapshot.circuits()).as("Device without circuits").isEmpty());
+        } finally {
+            jdbcTemplate.update("DELETE FROM device_vitals WHERE id = ?", SECOND_DEVICE_ID);
+            jdbcTemplate.update("DELETE FROM device WHERE id = ?", SECOND_DEVICE_ID);
+        }
+    }
+
+    @Test
+    @DisplayName("Older versions never replace a newer row, also not by a rebuild")
+    void updateVitals_KeepsNewerVersion() {
+        deviceVitalsViewRepository.rebuild(LocalDateTime.now(), BATCH_SIZE);
+        DeviceSnapshot current = deviceVitalsViewRepository.findById(DEVICE_ID).orElseThrow();
+
+        boolean stale = deviceVitalsViewRepository.updateVitals(renamed(current, current.version() - 1, "Stale"), LocalDateTime.now());
+        boolean newer = deviceVitalsViewRepository.updateVitals(renamed(current, current.version() + 1, "Newer"), LocalDateTime.now());
+        deviceVitalsViewRepository.rebuild(LocalDateTime.now(), BATCH_SIZE);
+
+        assertThat(stale).as("Stale update applied").isFalse();
+        assertThat(newer).as("Newer update applied").isTrue();
+        assertThat(deviceVitalsViewRepository.findById(DEVICE_ID)).hasValueSatisfying(snapshot -> {
+            assertThat(snapshot.version()).isEqualTo(current.version() + 1);
+            assertThat(snapshot.name()).as("Name kept by a vitals-only update").isEqualTo(current.name());
+            assertThat(snapshot.circuits()).as("Circuits kept by a vitals-only update").hasSize(8);
+        });
+    }
+
+    private static DeviceSnapshot renamed(DeviceSnapshot snapshot, long version, String name) {
+        return new DeviceSnapshot(snapshot.id(), version, name, snapshot.state(), snapshot.desiredState(),
+                snapshot.lastKeepAliveSendTime(), snapshot.lastCommandReceiveTime(), snapshot.circuitStateMask(), null);
+    }
+}
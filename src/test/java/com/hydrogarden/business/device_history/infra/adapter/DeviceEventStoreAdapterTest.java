@@ -0,0 +1,95 @@
+package com.hydrogarden.business.device_history.infra.adapter;
+
+import com.hydrogarden.business.device.core.entity.CircuitStateMask;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceShutdownDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device_history.core.DeviceEventRecord;
+import com.hydrogarden.business.device_history.core.DeviceStreamSnapshot;
+import com.hydrogarden.business.device_history.infra.repository.DeviceEventStoreRepository;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceEventStoreAdapter Tests")
+@TestPropertySource(properties = {
+        "hydrogarden.device.event-store.enabled=true",
+        "hydrogarden.device.event-store.snapshot-every=2"
+})
+class DeviceEventStoreAdapterTest extends HydrogardenIntegrationTest {
+
+    private static final DeviceId DEVICE_ID = new DeviceId((short) 45);
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private DeviceEventStoreAdapter deviceEventStoreAdapter;
+
+    @Autowired
+    private DeviceEventStoreRepository deviceEventStoreRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Snapshot taken after a concurrent writer committed still covers only its own events")
+    void snapshotIfDue_InterleavedWriters_StreamReadsBackEveryEventOnce() throws Exception {
+        CountDownLatch firstAppended = new CountDownLatch(1);
+        CountDownLatch secondCommitted = new CountDownLatch(1);
+
+        // The first writer appends, then commits only after the second writer appended and committed
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            long lastEventId = deviceEventStoreAdapter.append(DEVICE_ID, List.of(
+                    new RegisteredDeviceStartDE(DEVICE_ID, NOW),
+                    new RegisteredDeviceShutdownDE(DEVICE_ID, NOW.plusSeconds(1)))).orElseThrow();
+            firstAppended.countDown();
+            await(secondCommitted);
+            return lastEventId;
+        }));
+        assertThat(firstAppended.await(5, TimeUnit.SECONDS)).isTrue();
+        long secondLastEventId = transactionTemplate.execute(status -> deviceEventStoreAdapter.append(DEVICE_ID, List.of(
+                new RegisteredDeviceStartDE(DEVICE_ID, NOW.plusSeconds(2)),
+                new RegisteredDeviceShutdownDE(DEVICE_ID, NOW.plusSeconds(3)))).orElseThrow());
+        secondCommitted.countDown();
+        long firstLastEventId = first.get(5, TimeUnit.SECONDS);
+
+        // The first writer's after-commit snapshot runs last and resets the counter, so the second one is not due
+        deviceEventStoreAdapter.snapshotIfDue(snapshot(1), firstLastEventId);
+        deviceEventStoreAdapter.snapshotIfDue(snapshot(2), secondLastEventId);
+
+        DeviceStreamSnapshot stored = deviceEventStoreRepository.findSnapshot(DEVICE_ID.getId()).orElseThrow();
+        List<DeviceEventRecord> tail = deviceEventStoreRepository.findEvents(DEVICE_ID.getId(), stored.lastEventId(), 100);
+
+        assertThat(stored.snapshot().version()).isEqualTo(1);
+        assertThat(stored.lastEventId()).as("Snapshot must not cover the other writer's events").isEqualTo(firstLastEventId);
+        assertThat(tail).extracting(DeviceEventRecord::occurredAt)
+                .as("Events of the second writer are read after the snapshot")
+                .containsExactly(NOW.plusSeconds(2), NOW.plusSeconds(3));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DeviceSnapshot snapshot(long version) {
+        return new DeviceSnapshot(DEVICE_ID, version, "Device", DeviceState.ALIVE, DeviceState.ALIVE,
+                NOW, NOW, new CircuitStateMask((short) 8, 0b101L, 0b111L), null);
+    }
+}
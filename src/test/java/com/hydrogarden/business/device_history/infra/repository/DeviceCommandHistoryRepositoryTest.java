@@ -0,0 +1,79 @@
+package com.hydrogarden.business.device_history.infra.repository;
+
+import com.hydrogarden.business.device_history.app.service.DeviceHistoryApplicationService;
+import com.hydrogarden.business.device_history.core.CommandDirection;
+import com.hydrogarden.business.device_history.core.ConnectivityBucket;
+import com.hydrogarden.business.device_history.core.DeviceCommandRecord;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceCommandHistoryRepository Tests")
+class DeviceCommandHistoryRepositoryTest extends HydrogardenIntegrationTest {
+
+    private static final short DEVICE_ID = 42;
+
+    @Autowired
+    private DeviceCommandHistoryRepository deviceCommandHistoryRepository;
+
+    @Autowired
+    private DeviceHistoryApplicationService deviceHistoryApplicationService;
+
+    @Test
+    @DisplayName("Maintenance keeps daily partitions from today up to the premade horizon")
+    void maintainPartitions_CreatesDailyPartitions() {
+        deviceHistoryApplicationService.maintainPartitions();
+        deviceHistoryApplicationService.maintainPartitions();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<LocalDate> partitions = deviceCommandHistoryRepository.findDailyPartitions();
+
+        assertThat(partitions).as("Repeated maintenance should be idempotent").doesNotHaveDuplicates();
+        assertThat(partitions).contains(today, today.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Concurrent maintenance runs, as by several instances starting together, do not collide")
+    void maintainPartitions_Concurrently_Succeeds() {
+        List<CompletableFuture<Void>> runs = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(deviceHistoryApplicationService::maintainPartitions))
+                .toList();
+
+        assertThat(CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new))).succeedsWithin(Duration.ofSeconds(30));
+        assertThat(deviceCommandHistoryRepository.findDailyPartitions()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Connectivity is counted per bucket and direction")
+    void findConnectivity_CountsPerBucket() {
+        LocalDateTime from = LocalDateTime.now(ZoneOffset.UTC).withNano(0).minusHours(1);
+        deviceCommandHistoryRepository.insertAll(List.of(
+                record(from.plusSeconds(10), CommandDirection.INBOUND, "HEARTBEAT"),
+                record(from.plusSeconds(20), CommandDirection.OUTBOUND, "KEEP_ALIVE"),
+                record(from.plusSeconds(70), CommandDirection.INBOUND, "ACK_STATE"),
+                record(from.plusHours(2), CommandDirection.INBOUND, "HEARTBEAT")
+        ));
+
+        List<ConnectivityBucket> buckets = deviceCommandHistoryRepository.findConnectivity(DEVICE_ID, from, from.plusHours(1), 60);
+
+        assertThat(buckets).containsExactly(
+                new ConnectivityBucket(from, 1, 1, 1),
+                new ConnectivityBucket(from.plusSeconds(60), 1, 0, 0)
+        );
+    }
+
+    private static DeviceCommandRecord record(LocalDateTime occurredAt, CommandDirection direction, String commandType) {
+        return new DeviceCommandRecord(DEVICE_ID, occurredAt, direction, commandType, new byte[0]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hydrogarden.business.device_history.infra.repository;
+
+import com.hydrogarden.business.device.core.entity.CircuitStateMask;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.DeviceState;
+import com.hydrogarden.business.device.core.snapshot.DeviceSnapshot;
+import com.hydrogarden.business.device_history.core.DeviceEventRecord;
+import com.hydrogarden.business.device_history.core.DeviceStreamSnapshot;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeviceEventStoreRepository Tests")
+class DeviceEventStoreRepositoryTest extends HydrogardenIntegrationTest {
+
+    private static final short DEVICE_ID = 43;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private DeviceEventStoreRepository deviceEventStoreRepository;
+
+    @Test
+    @DisplayName("Snapshot covers the events appended before it; later events are read after it")
+    void saveSnapshot_BoundsEventsToRead() {
+        long lastEventId = deviceEventStoreRepository.appendAll(List.of(event("RegisteredDeviceStartDE"), event("ConfigSentDE")));
+        deviceEventStoreRepository.saveSnapshot(snapshot(5), lastEventId, NOW);
+        deviceEventStoreRepository.appendAll(List.of(event("RegisteredDeviceShutdownDE")));
+
+        DeviceStreamSnapshot stored = deviceEventStoreRepository.findSnapshot(DEVICE_ID).orElseThrow();
+        List<DeviceEventRecord> events = deviceEventStoreRepository.findEvents(DEVICE_ID, stored.lastEventId(), 100);
+
+        assertThat(stored.snapshot()).isEqualTo(snapshot(5));
+        assertThat(events).extracting(DeviceEventRecord::eventType).containsExactly("RegisteredDeviceShutdownDE");
+    }
+
+    @Test
+    @DisplayName("Snapshot of an older version does not replace a newer one")
+    void saveSnapshot_KeepsNewerVersion() {
+        short deviceId = DEVICE_ID + 1;
+        deviceEventStoreRepository.saveSnapshot(snapshot(deviceId, 7), 2, NOW);
+        deviceEventStoreRepository.saveSnapshot(snapshot(deviceId, 6), 1, NOW.plusSeconds(1));
+
+        DeviceStreamSnapshot stored = deviceEventStoreRepository.findSnapshot(deviceId).orElseThrow();
+
+        assertThat(stored.snapshot().version()).isEqualTo(7);
+        assertThat(stored.lastEventId()).isEqualTo(2);
+        assertThat(stored.takenAt()).isEqualTo(NOW);
+    }
+
+    private static DeviceEventRecord event(String eventType) {
+        return new DeviceEventRecord(null, DEVICE_ID, NOW, eventType, null);
+    }
+
+    private static DeviceSnapshot snapshot(long version) {
+        return snapshot(DEVICE_ID, version);
+    }
+
+    private static DeviceSnapshot snapshot(short deviceId, long version) {
+        return new DeviceSnapshot(new DeviceId(deviceId), version, "Device", DeviceState.ALIVE, DeviceState.ALIVE,
+                NOW, NOW, new CircuitStateMask((short) 8, 0b101L, 0b111L), null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.hydrogarden.business.ownership.app.service;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.ownership.infra.adapter.RabbitMQOwnershipListener;
+import com.hydrogarden.common.UserId;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("OwnershipApplicationService Tests")
+class OwnershipApplicationServiceImplTest extends HydrogardenIntegrationTest {
+
+    private static final UserId OWNER_ID = new UserId("ownership_test_user");
+    private static final DeviceId SEEDED_DEVICE_ID = new DeviceId((short) 1);
+
+    @Autowired
+    private OwnershipApplicationService ownershipApplicationService;
+
+    @Autowired
+    private RabbitMQOwnershipListener rabbitMQOwnershipListener;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM device_ownership WHERE owner_id = ?", OWNER_ID.getValue());
+        ownershipApplicationService.invalidate(OWNER_ID);
+    }
+
+    @Test
+    @DisplayName("Grant and revoke are visible to the next check and broadcast to other instances")
+    void grantAndRevoke_InvalidateIndexEverywhere() {
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).as("Owner before grant").isFalse();
+
+        ownershipApplicationService.grantOwnership(OWNER_ID, SEEDED_DEVICE_ID);
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).as("Owner after grant").isTrue();
+
+        ownershipApplicationService.revokeOwnership(OWNER_ID, SEEDED_DEVICE_ID);
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).as("Owner after revoke").isFalse();
+
+        verify(rabbitTemplate, times(2)).convertAndSend("hydrogarden.ownership", "", OWNER_ID.getValue());
+    }
+
+    @Test
+    @DisplayName("Change broadcast by another instance invalidates the cached index entry")
+    void receiveOwnershipChanged_ReloadsIndexEntry() {
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).isFalse();
+        jdbcTemplate.update("INSERT INTO device_ownership (owner_id, device_id) VALUES (?, ?)",
+                OWNER_ID.getValue(), SEEDED_DEVICE_ID.getId());
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).as("Cached before the broadcast").isFalse();
+
+        rabbitMQOwnershipListener.receiveOwnershipChanged(OWNER_ID.getValue());
+
+        assertThat(ownershipApplicationService.isOwner(OWNER_ID, SEEDED_DEVICE_ID)).as("Reloaded after the broadcast").isTrue();
+    }
+}
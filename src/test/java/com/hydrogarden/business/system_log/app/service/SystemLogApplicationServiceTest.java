@@ -0,0 +1,72 @@
+package com.hydrogarden.business.system_log.app.service;
+
+import com.hydrogarden.business.device.core.entity.CircuitState;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.event.KeepaliveSentDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceShutdownDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStateChangeDE;
+import com.hydrogarden.business.system_log.core.SystemLogEntry;
+import com.hydrogarden.business.system_log.infra.repository.SystemLogRepository;
+import com.hydrogarden.test.utils.HydrogardenIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SystemLogApplicationService Tests")
+class SystemLogApplicationServiceTest extends HydrogardenIntegrationTest {
+
+    private static final short DEVICE_ID = 47;
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private SystemLogRepository systemLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM system_log WHERE device_id = ? OR (device_id IS NULL AND occurred_at = ?)", DEVICE_ID, NOW);
+    }
+
+    @Test
+    @DisplayName("Entries are inserted as one batch, system-wide ones without a device")
+    void insertAll_InsertsEveryEntry() {
+        systemLogRepository.insertAll(List.of(
+                new SystemLogEntry(NOW, DEVICE_ID, "RegisteredDeviceStartDE", null),
+                new SystemLogEntry(NOW, null, "SystemStartedDE", "details")));
+
+        assertThat(eventTypes()).containsExactly("RegisteredDeviceStartDE");
+        assertThat(jdbcTemplate.queryForObject("SELECT details FROM system_log WHERE device_id IS NULL AND occurred_at = ?", String.class, NOW))
+                .isEqualTo("details");
+    }
+
+    @Test
+    @DisplayName("Audited events go through the batch writer into the system log; others are ignored")
+    void record_WritesAuditedEventsInBatches() {
+        DeviceId deviceId = new DeviceId(DEVICE_ID);
+        SystemLogApplicationService service = new SystemLogApplicationService(systemLogRepository, new SimpleMeterRegistry(), 1, 2, 60_000);
+
+        service.record(new RegisteredDeviceStartDE(deviceId, NOW));
+        service.record(new KeepaliveSentDE(deviceId, NOW.plusSeconds(1)));
+        service.record(new RegisteredDeviceStateChangeDE(NOW.plusSeconds(2), deviceId, List.of(CircuitState.OFF), List.of(CircuitState.ON)));
+        service.record(new RegisteredDeviceShutdownDE(deviceId, NOW.plusSeconds(3)));
+        service.close();
+
+        assertThat(eventTypes()).as("Buffer of one: later events waited for space instead of being dropped")
+                .containsExactly("RegisteredDeviceStartDE", "RegisteredDeviceStateChangeDE", "RegisteredDeviceShutdownDE");
+    }
+
+    private List<String> eventTypes() {
+        return jdbcTemplate.queryForList("SELECT event_type FROM system_log WHERE device_id = ? ORDER BY occurred_at, id", String.class, DEVICE_ID);
+    }
+}
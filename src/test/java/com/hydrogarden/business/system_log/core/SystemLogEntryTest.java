@@ -0,0 +1,58 @@
+package com.hydrogarden.business.system_log.core;
+
+import com.hydrogarden.business.device.core.entity.DeviceConfig;
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.event.ConfigSentDE;
+import com.hydrogarden.business.device.core.event.KeepaliveSentDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceConfigChangeDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SystemLogEntry Tests")
+class SystemLogEntryTest {
+
+    private static final DeviceId DEVICE_ID = new DeviceId((short) 1);
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Lifecycle events are logged without details")
+    void of_StartEvent() {
+        SystemLogEntry entry = SystemLogEntry.of(new RegisteredDeviceStartDE(DEVICE_ID, NOW)).orElseThrow();
+
+        assertThat(entry).isEqualTo(new SystemLogEntry(NOW, (short) 1, "RegisteredDeviceStartDE", null));
+    }
+
+    @Test
+    @DisplayName("Config changes describe the old and the new config")
+    void of_ConfigChangeEvent() {
+        DeviceConfig oldConfig = new DeviceConfig(Duration.ofSeconds(30), Duration.ofSeconds(10));
+        DeviceConfig newConfig = new DeviceConfig(Duration.ofSeconds(60), Duration.ofSeconds(20));
+
+        SystemLogEntry entry = SystemLogEntry.of(new RegisteredDeviceConfigChangeDE(NOW, DEVICE_ID, oldConfig, newConfig)).orElseThrow();
+
+        assertThat(entry.eventType()).isEqualTo("RegisteredDeviceConfigChangeDE");
+        assertThat(entry.details()).isEqualTo("standbyTimeout=PT30S, heartbeatInterval=PT10S -> standbyTimeout=PT1M, heartbeatInterval=PT20S");
+    }
+
+    @Test
+    @DisplayName("Missing config is described as none")
+    void of_ConfigSentWithoutPreviousConfig() {
+        DeviceConfig newConfig = new DeviceConfig(Duration.ofSeconds(60), Duration.ofSeconds(20));
+
+        SystemLogEntry entry = SystemLogEntry.of(new ConfigSentDE(NOW, DEVICE_ID, null, newConfig)).orElseThrow();
+
+        assertThat(entry.details()).startsWith("none -> ");
+    }
+
+    @Test
+    @DisplayName("High frequency events are not logged")
+    void of_KeepaliveEvent() {
+        assertThat(SystemLogEntry.of(new KeepaliveSentDE(DEVICE_ID, NOW))).isEmpty();
+    }
+}
@@ -0,0 +1,123 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AsyncBatchWriter Tests")
+class AsyncBatchWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Records are written in batches of at most batch size")
+    void offer_WritesInBatches() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+        try (AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 100, 10, Duration.ofSeconds(5), batches::add, meterRegistry)) {
+            for (int i = 0; i < 25; i++) {
+                writer.offer(i);
+            }
+        }
+
+        assertThat(batches).as("Close should flush buffered records").isNotEmpty();
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Partial batch is flushed after the flush interval")
+    void offer_FlushesAfterInterval() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+
+        try (AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 100, 10, Duration.ofMillis(50), batch -> flushed.countDown(), meterRegistry)) {
+            writer.offer(1);
+
+            assertThat(flushed.await(2, TimeUnit.SECONDS))
+                    .as("Single record should not wait for a full batch").isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Records are dropped when the buffer is full")
+    void offer_FullBuffer_Drops() throws InterruptedException {
+        CountDownLatch sinkEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 1, 1, Duration.ofMillis(1), batch -> {
+            sinkEntered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, meterRegistry)) {
+            writer.offer(1);
+            assertThat(sinkEntered.await(2, TimeUnit.SECONDS)).as("Worker took the first record").isTrue();
+            writer.offer(2);
+
+            assertThat(writer.offer(3)).as("Buffer of one is full").isFalse();
+            assertThat(meterRegistry.counter("hydrogarden.batch_writer.dropped", "writer", "test").count()).isEqualTo(1);
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Put waits for buffer space instead of dropping")
+    void put_FullBuffer_WaitsForSpace() throws InterruptedException {
+        CountDownLatch sinkEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+
+        try (AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 1, 1, Duration.ofMillis(1), batch -> {
+            sinkEntered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.addAll(batch);
+        }, meterRegistry)) {
+            writer.put(1);
+            assertThat(sinkEntered.await(2, TimeUnit.SECONDS)).isTrue();
+            writer.put(2);
+
+            Thread putter = Thread.ofVirtual().start(() -> writer.put(3));
+            putter.join(Duration.ofMillis(100));
+            assertThat(putter.isAlive()).as("Put into a full buffer should wait").isTrue();
+
+            release.countDown();
+            putter.join(Duration.ofSeconds(2));
+            assertThat(putter.isAlive()).as("Put should complete once the sink caught up").isFalse();
+        }
+        assertThat(written).containsExactly(1, 2, 3);
+        assertThat(meterRegistry.counter("hydrogarden.batch_writer.dropped", "writer", "test").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Failing sink does not stop the writer")
+    void offer_SinkFailure_KeepsWriting() throws InterruptedException {
+        CountDownLatch secondBatch = new CountDownLatch(2);
+
+        try (AsyncBatchWriter<Integer> writer = new AsyncBatchWriter<>("test", 100, 1, Duration.ofMillis(1), batch -> {
+            secondBatch.countDown();
+            if (batch.getFirst() == 1) {
+                throw new IllegalStateException("boom");
+            }
+        }, meterRegistry)) {
+            writer.offer(1);
+            writer.offer(2);
+
+            assertThat(secondBatch.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(meterRegistry.counter("hydrogarden.batch_writer.failed", "writer", "test").count()).isEqualTo(1);
+    }
+}
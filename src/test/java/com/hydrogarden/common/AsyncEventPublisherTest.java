@@ -0,0 +1,188 @@
+package com.hydrogarden.common;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import com.hydrogarden.business.device.core.entity.HydrogardenDomainEvent;
+import com.hydrogarden.business.device.core.event.KeepaliveSentDE;
+import com.hydrogarden.business.device.core.event.RegisteredDeviceStartDE;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AsyncEventPublisher Tests")
+class AsyncEventPublisherTest {
+
+    private static final DeviceId DEVICE_ID = new DeviceId((short) 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GenericApplicationContext context = new GenericApplicationContext();
+    private AsyncEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        publisher.close();
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Events reach matching listeners in publishing order, on another thread")
+    void publish_DeliversInOrderAsynchronously() throws InterruptedException {
+        List<HydrogardenDomainEvent> received = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(3);
+        context.addApplicationListener(new KeepaliveListener(event -> {
+            received.add(event);
+            threads.add(Thread.currentThread());
+            delivered.countDown();
+        }));
+        start(AsyncEventPublisher.OverflowPolicy.BLOCK, 16);
+
+        List<HydrogardenDomainEvent> events = List.of(keepalive(1), keepalive(2), keepalive(3));
+        publisher.publish(events);
+
+        assertThat(delivered.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactlyElementsOf(events);
+        assertThat(threads).doesNotContain(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Listeners only receive event types they declare")
+    void publish_OtherEventType_NotDelivered() throws InterruptedException {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        CountDownLatch sentinelDelivered = new CountDownLatch(1);
+        context.addApplicationListener(new StartListener(event -> {
+            received.add(event);
+            sentinelDelivered.countDown();
+        }));
+        start(AsyncEventPublisher.OverflowPolicy.BLOCK, 16);
+
+        // Events reach a listener in publishing order, so a wrongly delivered keepalive would arrive before the sentinel
+        RegisteredDeviceStartDE sentinel = new RegisteredDeviceStartDE(DEVICE_ID, LocalDateTime.of(2025, 1, 1, 0, 0, 2));
+        publisher.publish(List.of(keepalive(1), sentinel));
+
+        assertThat(sentinelDelivered.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactly(sentinel);
+    }
+
+    @Test
+    @DisplayName("Slow listener does not block the publisher under DROP_OLDEST")
+    void publish_SlowListener_DropOldest() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        context.addApplicationListener(new KeepaliveListener(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        start(AsyncEventPublisher.OverflowPolicy.DROP_OLDEST, 2);
+
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(keepalive(i));
+        }
+        release.countDown();
+
+        assertThat(meterRegistry.find("hydrogarden.events.dropped").counter().count())
+                .as("Events beyond the ring capacity should be dropped, not block").isPositive();
+    }
+
+    @Test
+    @DisplayName("Overflowing events spill and are still delivered in order")
+    void publish_SlowListener_Spill() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(10);
+        List<HydrogardenDomainEvent> received = new CopyOnWriteArrayList<>();
+        context.addApplicationListener(new KeepaliveListener(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+            delivered.countDown();
+        }));
+        start(AsyncEventPublisher.OverflowPolicy.SPILL, 2);
+
+        List<HydrogardenDomainEvent> events = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(keepalive(i));
+        }
+        publisher.publish(events);
+        release.countDown();
+
+        assertThat(delivered.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).containsExactlyElementsOf(events);
+        assertThat(meterRegistry.find("hydrogarden.events.spilled").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Events that do not fit in the spill queue are dropped and counted")
+    void publish_SlowListener_SpillFull_Drops() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<HydrogardenDomainEvent> received = new CopyOnWriteArrayList<>();
+        context.addApplicationListener(new KeepaliveListener(event -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        }));
+        start(AsyncEventPublisher.OverflowPolicy.SPILL, 2, 3);
+
+        publisher.publish(keepalive(0));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < 10; i++) {
+            publisher.publish(keepalive(i));
+        }
+        release.countDown();
+        publisher.close();
+
+        // One in the listener, two in the ring buffer, three spilled
+        assertThat(received).hasSize(6);
+        assertThat(meterRegistry.find("hydrogarden.events.dropped").counter().count()).isEqualTo(4);
+    }
+
+    private void start(AsyncEventPublisher.OverflowPolicy overflowPolicy, int capacity) {
+        start(overflowPolicy, capacity, 1024);
+    }
+
+    private void start(AsyncEventPublisher.OverflowPolicy overflowPolicy, int capacity, int spillCapacity) {
+        context.refresh();
+        publisher = new AsyncEventPublisher(context, meterRegistry, capacity, overflowPolicy, spillCapacity);
+    }
+
+    private record KeepaliveListener(Consumer<KeepaliveSentDE> consumer)
+            implements ApplicationListener<PayloadApplicationEvent<KeepaliveSentDE>> {
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<KeepaliveSentDE> event) {
+            consumer.accept(event.getPayload());
+        }
+    }
+
+    private record StartListener(Consumer<RegisteredDeviceStartDE> consumer)
+            implements ApplicationListener<PayloadApplicationEvent<RegisteredDeviceStartDE>> {
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<RegisteredDeviceStartDE> event) {
+            consumer.accept(event.getPayload());
+        }
+    }
+
+    private static KeepaliveSentDE keepalive(int second) {
+        return new KeepaliveSentDE(DEVICE_ID, LocalDateTime.of(2025, 1, 1, 0, 0, second));
+    }
+}
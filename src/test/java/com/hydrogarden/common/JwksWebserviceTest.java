@@ -0,0 +1,127 @@
+package com.hydrogarden.common;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwksWebservice Tests")
+class JwksWebserviceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private HttpServer server;
+    private final AtomicReference<String> jwks = new AtomicReference<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks.json", exchange -> {
+            requests.incrementAndGet();
+            String body = jwks.get();
+            if (body == null) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Refreshed keys are snapshotted and loaded from disk by the next instance")
+    void refresh_WritesSnapshotForNextStartup() throws Exception {
+        RSAPublicKey key = newKey();
+        jwks.set(jwksOf(Map.of("kid-1", key)));
+        JwtKeyCache keyCache = new JwtKeyCache();
+        newService(keyCache).refresh(true).join();
+
+        jwks.set(null);
+        JwtKeyCache restartedKeyCache = new JwtKeyCache();
+        newService(restartedKeyCache).init();
+
+        assertThat(Files.exists(tempDir.resolve("jwks.json"))).as("Snapshot written").isTrue();
+        assertThat(restartedKeyCache.getByKid("kid-1")).isEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps the last good keys")
+    void refresh_Failure_KeepsLastGoodKeys() throws Exception {
+        RSAPublicKey key = newKey();
+        jwks.set(jwksOf(Map.of("kid-1", key)));
+        JwtKeyCache keyCache = new JwtKeyCache();
+        JwksWebservice service = newService(keyCache);
+        service.refresh(true).join();
+
+        jwks.set("not json");
+        service.refresh(true).join();
+
+        assertThat(keyCache.getByKid("kid-1")).isEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("An unknown kid triggers one rate-limited refresh")
+    void awaitKey_UnknownKid_RefreshesOnce() throws Exception {
+        RSAPublicKey rotated = newKey();
+        jwks.set(jwksOf(Map.of("kid-2", rotated)));
+        JwksWebservice service = newService(new JwtKeyCache());
+
+        assertThat(service.awaitKey("kid-2")).isEqualTo(rotated);
+        assertThat(service.awaitKey("kid-unknown")).isNull();
+        assertThat(requests).as("JWKS requests").hasValue(1);
+    }
+
+    private JwksWebservice newService(JwtKeyCache keyCache) {
+        String url = "http://127.0.0.1:%d/jwks.json".formatted(server.getAddress().getPort());
+        return new JwksWebservice(keyCache, new SimpleMeterRegistry(), url, tempDir.resolve("jwks.json"), 60_000, 2_000, 2_000);
+    }
+
+    private static String jwksOf(Map<String, RSAPublicKey> keys) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return keys.entrySet().stream()
+                .map(entry -> """
+                        {"kty":"RSA","kid":"%s","n":"%s","e":"%s"}""".formatted(
+                        entry.getKey(),
+                        encoder.encodeToString(entry.getValue().getModulus().toByteArray()),
+                        encoder.encodeToString(entry.getValue().getPublicExponent().toByteArray())))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    private static RSAPublicKey newKey() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return (RSAPublicKey) generator.generateKeyPair().getPublic();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hydrogarden.common;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("JwtAuthenticationFilter Tests")
+class JwtAuthenticationFilterTest {
+
+    private static final String KID = "kid-1";
+
+    private final JwtKeyCache jwtKeyCache = new JwtKeyCache();
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtKeyCache, mock(JwksWebservice.class),
+            new VerifiedTokenCache(jwtKeyCache, new SimpleMeterRegistry(), 100, 600_000), "/hg-backend");
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Token without deviceId claim authenticates its user without a device")
+    void doFilter_TokenWithoutDeviceId_Authenticates() throws Exception {
+        KeyPair keyPair = newKeyPair();
+        jwtKeyCache.setPublicKeys(Map.of(KID, keyPair.getPublic()));
+        String token = Jwts.builder()
+                .header().keyId(KID).and()
+                .claim("userId", "owner_of_many")
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hg-backend/devices/vitals");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).as("Response status").isEqualTo(200);
+        assertThat(authentication.get()).isInstanceOfSatisfying(UserSecurityModel.class, user -> {
+            assertThat(user.getUserId()).isEqualTo(new UserId("owner_of_many"));
+            assertThat(user.getDetails()).as("Device of the token").isNull();
+        });
+    }
+
+    private static KeyPair newKeyPair() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,68 @@
+package com.hydrogarden.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OptimisticRetryExecutor Tests")
+class OptimisticRetryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryExecutor executor =
+            new OptimisticRetryExecutor(TransactionOperations.withoutTransaction(), meterRegistry, 3, 1, 2);
+
+    @Test
+    @DisplayName("Conflicting attempts are retried until one succeeds")
+    void execute_ConflictThenSuccess_Retries() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("test", status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts.get()).as("Callback should run until it commits").isEqualTo(3);
+        assertThat(meterRegistry.counter("hydrogarden.optimistic_lock.conflicts", "operation", "test").count())
+                .as("Each failed attempt should be counted as a conflict").isEqualTo(2);
+        assertThat(meterRegistry.counter("hydrogarden.optimistic_lock.retries_exhausted", "operation", "test").count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Conflict is rethrown once all attempts are used")
+    void execute_PersistentConflict_Rethrows() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("test", status -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts.get()).as("Callback should run max-attempts times").isEqualTo(3);
+        assertThat(meterRegistry.counter("hydrogarden.optimistic_lock.retries_exhausted", "operation", "test").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Other exceptions are not retried")
+    void execute_OtherException_NotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("test", status -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.hydrogarden.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+    private final ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replica, replicaUsable::get);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Read-write work goes to the primary")
+    void getConnection_ReadWrite_Primary() throws SQLException {
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Read-only transaction goes to the replica")
+    void getConnection_ReadOnly_Replica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routingDataSource.getConnection();
+
+        verify(replica).getConnection();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Read-only transaction falls back to the primary while the replica lags")
+    void getConnection_ReadOnly_ReplicaLagging_Primary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replicaUsable.set(false);
+
+        routingDataSource.getConnection();
+
+        verify(primary).getConnection();
+        verifyNoInteractions(replica);
+    }
+}
@@ -0,0 +1,82 @@
+package com.hydrogarden.common;
+
+import com.hydrogarden.business.device.core.entity.DeviceId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VerifiedTokenCache Tests")
+class VerifiedTokenCacheTest {
+
+    private static final String KID = "kid-1";
+    private static final String TOKEN = "header.payload.signature";
+
+    private final JwtKeyCache jwtKeyCache = new JwtKeyCache();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwtKeyCache, new SimpleMeterRegistry(), 100, 600_000);
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    @DisplayName("Repeated tokens are verified once")
+    void get_RepeatedToken_VerifiedOnce() throws NoSuchAlgorithmException {
+        PublicKey key = newKey();
+        jwtKeyCache.setPublicKeys(Map.of(KID, key));
+        Function<String, VerifiedTokenCache.VerifiedToken> verifier = verifier(key, Instant.now().plus(1, ChronoUnit.HOURS));
+
+        cache.get(TOKEN, verifier);
+        VerifiedTokenCache.VerifiedToken second = cache.get(TOKEN, verifier);
+
+        assertThat(verifications).as("Verifications").hasValue(1);
+        assertThat(second.userId()).isEqualTo(new UserId("user"));
+    }
+
+    @Test
+    @DisplayName("Tokens are verified again once their key was rotated out")
+    void get_KeyRotated_VerifiedAgain() throws NoSuchAlgorithmException {
+        PublicKey key = newKey();
+        jwtKeyCache.setPublicKeys(Map.of(KID, key));
+        cache.get(TOKEN, verifier(key, Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        PublicKey rotated = newKey();
+        jwtKeyCache.setPublicKeys(Map.of(KID, rotated));
+        cache.get(TOKEN, verifier(rotated, Instant.now().plus(1, ChronoUnit.HOURS)));
+
+        assertThat(verifications).as("Verifications").hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Expired tokens are never served from the cache")
+    void get_ExpiredToken_VerifiedAgain() throws NoSuchAlgorithmException {
+        PublicKey key = newKey();
+        jwtKeyCache.setPublicKeys(Map.of(KID, key));
+        Function<String, VerifiedTokenCache.VerifiedToken> verifier = verifier(key, Instant.now().minusSeconds(1));
+
+        cache.get(TOKEN, verifier);
+        cache.get(TOKEN, verifier);
+
+        assertThat(verifications).as("Verifications").hasValue(2);
+    }
+
+    private Function<String, VerifiedTokenCache.VerifiedToken> verifier(PublicKey key, Instant expiresAt) {
+        return token -> {
+            verifications.incrementAndGet();
+            return new VerifiedTokenCache.VerifiedToken(new UserId("user"), new DeviceId((short) 1), KID, key, expiresAt);
+        };
+    }
+
+    private static PublicKey newKey() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair().getPublic();
+    }
+}
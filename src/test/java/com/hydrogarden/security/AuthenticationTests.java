@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class AuthenticationTests extends HydrogardenIntegrationTest {
@@ -31,6 +32,10 @@ public class AuthenticationTests extends HydrogardenIntegrationTest {
         return new UserSecurityModel(new UserId("userId"), null);
     }
 
+    private static @NonNull UserSecurityModel getOwnerWithoutDevice() {
+        return new UserSecurityModel(new UserId("user_sample_owner_id"), null);
+    }
+
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
@@ -78,4 +83,28 @@ public class AuthenticationTests extends HydrogardenIntegrationTest {
                     deviceApplicationService.renameDevice(anyDeviceId, "New Name"));
         }
     }
+
+    @Nested
+    class Owner__without_device {
+        @BeforeEach
+        void setUp() {
+            UserSecurityModel authentication = getOwnerWithoutDevice();
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+
+        @Test
+        void getDeviceSnapshot_shouldPassSecurityCheck_forOwnedDevice() {
+            DeviceId ownedDeviceId = new DeviceId((short) 1);
+
+            assertDoesNotThrow(() -> deviceApplicationService.getDeviceSnapshot(ownedDeviceId));
+        }
+
+        @Test
+        void renameDevice_shouldBeDenied_forDeviceOwnedByAnotherUser() {
+            DeviceId otherDeviceId = new DeviceId((short) 124);
+
+            assertThrows(AccessDeniedException.class, () ->
+                    deviceApplicationService.renameDevice(otherDeviceId, "New Name"));
+        }
+    }
 }
@@ -30,5 +30,7 @@ abstract public class HydrogardenIntegrationTest {
     static MySQLContainer<?> mysqlContainer = new MySQLContainer<>("mysql:8.0.33")
             .withDatabaseName("hg-backend")
             .withUsername("test")
-            .withPassword("test").waitingFor(Wait.defaultWaitStrategy());
+            .withPassword("test")
+            .withUrlParam("rewriteBatchedStatements", "true")
+            .waitingFor(Wait.defaultWaitStrategy());
 }
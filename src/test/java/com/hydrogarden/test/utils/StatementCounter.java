@@ -0,0 +1,43 @@
+package com.hydrogarden.test.utils;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts JDBC round trips issued by Hibernate on the calling thread. Registered for every session through
+ * {@code hibernate.session.events.auto} in the test profile; counting per thread keeps other sessions out.
+ * <p>
+ * A statement is a single executed query or update; a batch is one {@code executeBatch}, which the
+ * MySQL driver sends as one round trip with {@code rewriteBatchedStatements}.
+ */
+public class StatementCounter implements SessionEventListener {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final int STATEMENTS = 0;
+    private static final int BATCHES = 1;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        COUNTS.get()[BATCHES]++;
+    }
+
+    public static void reset() {
+        COUNTS.remove();
+    }
+
+    public static long getStatementCount() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    public static long getBatchCount() {
+        return COUNTS.get()[BATCHES];
+    }
+
+    public static long getRoundTripCount() {
+        return getStatementCount() + getBatchCount();
+    }
+}